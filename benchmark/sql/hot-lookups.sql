@@ -0,0 +1,52 @@
+-- Планы и время выполнения запросов горячего пути на 1 000 000 строк.
+--
+-- Запуск на локальной базе, к которой уже применены миграции Liquibase:
+--
+--   psql -d spring-mvc -f benchmark/sql/hot-lookups.sql
+--
+-- Скрипт выполняется в одной транзакции и откатывает ее в конце, поэтому данные
+-- в базе не меняются. Каждый запрос выполняется дважды: с индексами из
+-- changelog 008/009 и после их удаления внутри транзакции.
+
+\timing on
+\set rows 1000000
+
+BEGIN;
+
+INSERT INTO "users" ("login", "password_hash")
+SELECT 'bench_' || g || '@mail.com', '$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm'
+FROM generate_series(1, :rows) g;
+
+INSERT INTO "black_list" ("username", "token", "exp")
+SELECT 'bench_' || g || '@mail.com',
+       'eyJhbGciOiJIUzI1NiJ9.' || md5(g::text) || '.' || md5((g * 7)::text),
+       now() + (g % 7200 - 3600) * interval '1 second'
+FROM generate_series(1, :rows) g;
+
+ANALYZE "users";
+ANALYZE "black_list";
+
+\echo '=== with indexes ==='
+
+-- UserRepository.findByLogin / existsUserByLogin
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM "users" WHERE "login" = 'bench_777777@mail.com';
+-- TokenRepository.existsByToken
+EXPLAIN (ANALYZE, BUFFERS) SELECT 1 FROM "black_list"
+WHERE "token" = 'eyJhbGciOiJIUzI1NiJ9.' || md5('777777') || '.' || md5((777777 * 7)::text) LIMIT 1;
+-- TokenRepository.deleteExpiredBatch / findNextExpiry
+EXPLAIN (ANALYZE, BUFFERS) SELECT "id" FROM "black_list" WHERE "exp" < now() ORDER BY "exp" LIMIT 1000;
+EXPLAIN (ANALYZE, BUFFERS) SELECT min("exp") FROM "black_list";
+
+DROP INDEX "users_login_uidx";
+DROP INDEX "black_list_token_hash_idx";
+DROP INDEX "black_list_exp_idx";
+
+\echo '=== without indexes ==='
+
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM "users" WHERE "login" = 'bench_777777@mail.com';
+EXPLAIN (ANALYZE, BUFFERS) SELECT 1 FROM "black_list"
+WHERE "token" = 'eyJhbGciOiJIUzI1NiJ9.' || md5('777777') || '.' || md5((777777 * 7)::text) LIMIT 1;
+EXPLAIN (ANALYZE, BUFFERS) SELECT "id" FROM "black_list" WHERE "exp" < now() ORDER BY "exp" LIMIT 1000;
+EXPLAIN (ANALYZE, BUFFERS) SELECT min("exp") FROM "black_list";
+
+ROLLBACK;
@@ -0,0 +1,102 @@
+package by.vitikova.spring.mvc.benchmark;
+
+import by.vitikova.spring.mvc.config.TokenKeyRing;
+import by.vitikova.spring.mvc.config.TokenProvider;
+import by.vitikova.spring.mvc.config.TokenVerifier;
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.model.entity.Role;
+import by.vitikova.spring.mvc.model.entity.User;
+import by.vitikova.spring.mvc.repository.UserRepository;
+import by.vitikova.spring.mvc.service.impl.AuthServiceImpl;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Set;
+
+/**
+ * Общие данные для бенчмарков.
+ * <p>
+ * Компоненты приложения создаются напрямую, без контекста Spring, поэтому при
+ * изменении их конструкторов достаточно поправить этот класс.
+ */
+public final class Fixtures {
+
+    public static final String SECRET = "benchmark-secret-key";
+    public static final String KEY_ID = "default";
+    public static final String LOGIN = "benchmark-user";
+    public static final String PASSWORD = "benchmark-password";
+    public static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1hBHRSvVbQy6F3HRZxHs5L6";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Создает набор ключей с единственным ключом подписи.
+     *
+     * @return набор ключей
+     */
+    public static TokenKeyRing keyRing() {
+        return new TokenKeyRing(SECRET, KEY_ID, "", "");
+    }
+
+    /**
+     * Создает сервис аутентификации. Зависимости, не нужные бенчмарку, могут быть {@code null}.
+     *
+     * @param userRepository  репозиторий пользователей
+     * @param keyRing         набор ключей
+     * @param passwordEncoder кодировщик пароля
+     * @return сервис аутентификации
+     */
+    public static AuthServiceImpl authService(UserRepository userRepository,
+                                              TokenKeyRing keyRing,
+                                              PasswordEncoder passwordEncoder) {
+        return new AuthServiceImpl(userRepository, null, new TokenProvider(keyRing), new TokenVerifier(keyRing),
+                passwordEncoder, null, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Создает пользователя с ролями USER и ADMIN.
+     *
+     * @return пользователь
+     */
+    public static User user() {
+        var user = new User(LOGIN, PASSWORD_HASH, Set.of(role(1L, RoleName.USER), role(2L, RoleName.ADMIN)));
+        user.setId(1L);
+        return user;
+    }
+
+    /**
+     * Создает ObjectMapper с теми же настройками разбора, что и у Spring Boot.
+     *
+     * @return ObjectMapper
+     */
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Записывает значение в поле объекта, которое обычно заполняет Spring.
+     *
+     * @param target объект
+     * @param name   имя поля
+     * @param value  значение
+     */
+    public static void inject(Object target, String name, Object value) {
+        var field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException(name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static Role role(Long id, RoleName name) {
+        var role = new Role();
+        role.setId(id);
+        role.setName(name);
+        return role;
+    }
+}
@@ -0,0 +1,79 @@
+package by.vitikova.spring.mvc.benchmark;
+
+import by.vitikova.spring.mvc.config.TokenProvider;
+import by.vitikova.spring.mvc.config.service.UserDetailsServiceImpl;
+import by.vitikova.spring.mvc.model.dto.auth.JwtDto;
+import by.vitikova.spring.mvc.model.dto.auth.SignInDto;
+import by.vitikova.spring.mvc.model.entity.User;
+import by.vitikova.spring.mvc.repository.UserRepository;
+import by.vitikova.spring.mvc.service.impl.AuthServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Бенчмарк входа пользователя.
+ * <p>
+ * {@code signIn} проверяет пароль один раз и выдает токен по уже проверенному
+ * пользователю. {@code doubleVerification} повторяет прежний порядок действий:
+ * проверку пароля и затем полную аутентификацию через {@link AuthenticationManager},
+ * которая снова загружает пользователя и проверяет пароль.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignInBenchmark {
+
+    private AuthServiceImpl authService;
+    private AuthenticationManager authenticationManager;
+    private PasswordEncoder passwordEncoder;
+    private TokenProvider tokenProvider;
+    private UserRepository userRepository;
+    private SignInDto signInDto;
+
+    @Setup
+    public void setUp() {
+        var keyRing = Fixtures.keyRing();
+        passwordEncoder = new BCryptPasswordEncoder();
+        var user = Fixtures.user();
+        user.setPasswordHash(passwordEncoder.encode(Fixtures.PASSWORD));
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByLogin(Fixtures.LOGIN)).thenReturn(Optional.of(user));
+        authService = Fixtures.authService(userRepository, keyRing, passwordEncoder);
+        var authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(new UserDetailsServiceImpl(userRepository));
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationManager = new ProviderManager(authenticationProvider);
+        tokenProvider = new TokenProvider(keyRing);
+        signInDto = new SignInDto(Fixtures.LOGIN, Fixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public JwtDto signIn() {
+        return authService.signIn(signInDto);
+    }
+
+    @Benchmark
+    public JwtDto doubleVerification() {
+        var user = userRepository.findByLogin(signInDto.username()).orElseThrow();
+        if (!passwordEncoder.matches(signInDto.password(), user.getPasswordHash())) {
+            throw new IllegalStateException();
+        }
+        var authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(signInDto.username(), signInDto.password()));
+        return new JwtDto(tokenProvider.generateAccessToken((User) authentication.getPrincipal()));
+    }
+}
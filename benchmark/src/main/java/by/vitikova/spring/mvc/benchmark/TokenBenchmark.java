@@ -0,0 +1,67 @@
+package by.vitikova.spring.mvc.benchmark;
+
+import by.vitikova.spring.mvc.config.TokenProvider;
+import by.vitikova.spring.mvc.config.TokenVerifier;
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
+import by.vitikova.spring.mvc.model.entity.User;
+import by.vitikova.spring.mvc.service.impl.AuthServiceImpl;
+import by.vitikova.spring.mvc.util.TokenUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки выдачи и разбора JWT токенов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+    private TokenProvider tokenProvider;
+    private TokenVerifier tokenVerifier;
+    private AuthServiceImpl authService;
+    private TokenUtil tokenUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        var keyRing = Fixtures.keyRing();
+        tokenProvider = new TokenProvider(keyRing);
+        tokenVerifier = new TokenVerifier(keyRing);
+        authService = Fixtures.authService(null, keyRing, null);
+        tokenUtil = new TokenUtil();
+        Fixtures.inject(tokenUtil, "objectMapper", Fixtures.objectMapper());
+        user = Fixtures.user();
+        token = tokenProvider.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return tokenProvider.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public TokenClaims verify() {
+        return tokenVerifier.verify(token);
+    }
+
+    @Benchmark
+    public boolean check() {
+        return authService.check(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return tokenUtil.getUsername(token);
+    }
+
+    @Benchmark
+    public Long getExt() {
+        return tokenUtil.getExt(token);
+    }
+}
@@ -0,0 +1,35 @@
+package by.vitikova.spring.mvc.benchmark;
+
+import by.vitikova.spring.mvc.converter.UserConverter;
+import by.vitikova.spring.mvc.converter.UserConverterImpl;
+import by.vitikova.spring.mvc.model.dto.UserDto;
+import by.vitikova.spring.mvc.model.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк преобразования пользователя в DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserConverterBenchmark {
+
+    private UserConverter userConverter;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        userConverter = new UserConverterImpl();
+        user = Fixtures.user();
+    }
+
+    @Benchmark
+    public UserDto convert() {
+        return userConverter.convert(user);
+    }
+}
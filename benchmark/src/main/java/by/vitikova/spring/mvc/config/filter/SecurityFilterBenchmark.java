@@ -0,0 +1,77 @@
+package by.vitikova.spring.mvc.config.filter;
+
+import by.vitikova.spring.mvc.benchmark.Fixtures;
+import by.vitikova.spring.mvc.config.TokenProvider;
+import by.vitikova.spring.mvc.config.TokenVerifier;
+import by.vitikova.spring.mvc.config.service.UserDetailsServiceImpl;
+import by.vitikova.spring.mvc.repository.TokenRepository;
+import by.vitikova.spring.mvc.repository.UserRepository;
+import by.vitikova.spring.mvc.service.impl.RevocationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static by.vitikova.spring.mvc.constant.Constant.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Бенчмарк фильтра безопасности на запросе с действительным токеном.
+ * <p>
+ * Класс лежит в пакете фильтра, чтобы вызывать {@code doFilterInternal} напрямую.
+ * Репозитории заменены заглушками, поэтому в результат входит только работа фильтра
+ * и сервисов, которые он вызывает.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean stateless;
+
+    private SecurityFilter securityFilter;
+    private MockHttpServletResponse response;
+    private FilterChain filterChain;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        var keyRing = Fixtures.keyRing();
+        var user = Fixtures.user();
+        var userRepository = mock(UserRepository.class);
+        when(userRepository.findByLogin(Fixtures.LOGIN)).thenReturn(Optional.of(user));
+        securityFilter = new SecurityFilter(
+                new TokenVerifier(keyRing),
+                new RevocationServiceImpl(mock(TokenRepository.class)),
+                new UserDetailsServiceImpl(userRepository),
+                new SimpleMeterRegistry());
+        Fixtures.inject(securityFilter, "stateless", stateless);
+        response = new MockHttpServletResponse();
+        filterChain = (request, response) -> {
+        };
+        authorization = BEARER_PREFIX + new TokenProvider(keyRing).generateAccessToken(user);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object doFilterInternal() {
+        var request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader(AUTHORIZATION_HEADER, authorization);
+        securityFilter.doFilterInternal(request, response, filterChain);
+        return request.getAttribute(TOKEN_CLAIMS_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,247 @@
+package by.vitikova.spring.mvc.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP-клиент API приложения.
+ * <p>
+ * Каждый запрос записывается в переданный {@link Recorder} под названием операции
+ * вместе с кодом ответа и временем выполнения. Ошибка соединения записывается
+ * с кодом 0 и не прерывает тест.
+ */
+public class ApiClient {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String ETAG_HEADER = "ETag";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public ApiClient(URI baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Ответ приложения.
+     *
+     * @param status код ответа или 0, если ответ не получен
+     * @param body   тело ответа
+     * @param eTag   значение заголовка ETag или {@code null}
+     */
+    public record Response(int status, String body, String eTag) {
+
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300 || status == 304;
+        }
+    }
+
+    /**
+     * Регистрирует пользователя.
+     *
+     * @param recorder  получатель результата
+     * @param operation название операции
+     * @param login     логин
+     * @param password  пароль
+     * @param roles     роли пользователя
+     * @return токен доступа или {@code null}, если регистрация не удалась
+     */
+    public String signUp(Recorder recorder, String operation, String login, String password, List<String> roles) {
+        return accessToken(send(recorder, operation, post("/api/auth/signUp", userBody(login, password, roles))));
+    }
+
+    /**
+     * Выполняет вход пользователя.
+     *
+     * @param recorder  получатель результата
+     * @param operation название операции
+     * @param login     логин
+     * @param password  пароль
+     * @return токен доступа или {@code null}, если вход не удался
+     */
+    public String signIn(Recorder recorder, String operation, String login, String password) {
+        var body = Map.of("username", login, "password", password);
+        return accessToken(send(recorder, operation, post("/api/auth/signIn", body)));
+    }
+
+    /**
+     * Запрашивает текущего пользователя.
+     *
+     * @param recorder  получатель результата
+     * @param operation название операции
+     * @param token     токен доступа
+     * @param eTag      ETag из предыдущего ответа или {@code null}
+     * @return ответ приложения
+     */
+    public Response me(Recorder recorder, String operation, String token, String eTag) {
+        var request = request("/api/users/me", token).GET();
+        if (eTag != null) {
+            request.header(IF_NONE_MATCH_HEADER, eTag);
+        }
+        return send(recorder, operation, request.build());
+    }
+
+    /**
+     * Создает пользователя от имени администратора.
+     *
+     * @param recorder  получатель результата
+     * @param operation название операции
+     * @param token     токен доступа администратора
+     * @param login     логин
+     * @param password  пароль
+     * @param roles     роли пользователя
+     * @return ответ приложения
+     */
+    public Response create(Recorder recorder, String operation, String token, String login, String password,
+                           List<String> roles) {
+        return send(recorder, operation, request("/api/users", token)
+                .POST(HttpRequest.BodyPublishers.ofString(json(userBody(login, password, roles))))
+                .build());
+    }
+
+    /**
+     * Запрашивает пользователя по идентификатору.
+     *
+     * @param recorder  получатель результата
+     * @param operation название операции
+     * @param token     токен доступа администратора
+     * @param id        идентификатор пользователя
+     * @return ответ приложения
+     */
+    public Response findById(Recorder recorder, String operation, String token, String id) {
+        return send(recorder, operation, request("/api/users/" + id, token).GET().build());
+    }
+
+    /**
+     * Изменяет логин пользователя.
+     *
+     * @param recorder  получатель результата
+     * @param operation название операции
+     * @param token     токен доступа администратора
+     * @param id        идентификатор пользователя
+     * @param login     новый логин
+     * @return ответ приложения
+     */
+    public Response update(Recorder recorder, String operation, String token, String id, String login) {
+        var body = Map.of("id", Long.parseLong(id), "username", login);
+        return send(recorder, operation, request("/api/users/" + id, token)
+                .PUT(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build());
+    }
+
+    /**
+     * Удаляет пользователя.
+     *
+     * @param recorder  получатель результата
+     * @param operation название операции
+     * @param token     токен доступа администратора
+     * @param id        идентификатор пользователя
+     * @return ответ приложения
+     */
+    public Response delete(Recorder recorder, String operation, String token, String id) {
+        return send(recorder, operation, request("/api/users/" + id, token).DELETE().build());
+    }
+
+    /**
+     * Выполняет выход пользователя; токен попадает в черный список.
+     *
+     * @param recorder  получатель результата
+     * @param operation название операции
+     * @param token     токен доступа
+     * @return ответ приложения
+     */
+    public Response logout(Recorder recorder, String operation, String token) {
+        return send(recorder, operation, request("/api/users/logout", token).GET().build());
+    }
+
+    /**
+     * Возвращает значение поля JSON-ответа.
+     *
+     * @param response ответ приложения
+     * @param field    название поля
+     * @return значение поля или {@code null}, если ответ неуспешный или поле отсутствует
+     */
+    public String field(Response response, String field) {
+        if (response.status() < 200 || response.status() >= 300 || response.body().isEmpty()) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(response.body()).get(field);
+            return node == null ? null : node.asText();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Object> userBody(String login, String password, List<String> roles) {
+        return Map.of(
+                "username", login,
+                "password", password,
+                "passwordConfirm", password,
+                "roleList", roles.stream().map(role -> Map.of("name", role)).toList());
+    }
+
+    private String accessToken(Response response) {
+        return field(response, "accessToken");
+    }
+
+    private Response send(Recorder recorder, String operation, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            var result = new Response(response.statusCode(), response.body(),
+                    response.headers().firstValue(ETAG_HEADER).orElse(null));
+            recorder.record(operation, result.status(), result.isSuccessful(), System.nanoTime() - start);
+            return result;
+        } catch (IOException e) {
+            recorder.record(operation, 0, false, System.nanoTime() - start);
+            return new Response(0, "", null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, "", null);
+        }
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header(AUTHORIZATION_HEADER, BEARER_PREFIX + token);
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package by.vitikova.spring.mvc.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сравнение результатов с эталонным запуском.
+ * <p>
+ * Операция считается ухудшившейся, если ее пропускная способность снизилась или
+ * 99-й процентиль задержки вырос больше чем на {@code tolerance}, либо если доля
+ * ошибок выросла больше чем на {@code tolerance} процентных пунктов. Операции,
+ * которых нет в одном из запусков, не сравниваются.
+ */
+public final class Baseline {
+
+    private Baseline() {
+    }
+
+    /**
+     * Сравнивает результаты с эталонными.
+     *
+     * @param baseline  эталонные результаты
+     * @param current   текущие результаты
+     * @param tolerance допустимое относительное ухудшение
+     * @return описания ухудшений; пустой список, если ухудшений нет
+     */
+    public static List<String> compare(Report baseline, Report current, double tolerance) {
+        var regressions = new ArrayList<String>();
+        System.out.printf("%-16s %12s %12s %12s %12s%n", "operation", "req/s", "change", "p99 ms", "change");
+        current.operations().forEach((operation, result) -> {
+            var expected = baseline.operations().get(operation);
+            if (expected == null) {
+                return;
+            }
+            double throughputChange = change(expected.throughput(), result.throughput());
+            double p99Change = change(expected.p99(), result.p99());
+            System.out.printf("%-16s %12.2f %+11.1f%% %12.2f %+11.1f%%%n",
+                    operation, result.throughput(), throughputChange * 100, result.p99(), p99Change * 100);
+            if (throughputChange < -tolerance) {
+                regressions.add(String.format("%s: throughput %.2f -> %.2f req/s",
+                        operation, expected.throughput(), result.throughput()));
+            }
+            if (p99Change > tolerance) {
+                regressions.add(String.format("%s: p99 %.2f -> %.2f ms", operation, expected.p99(), result.p99()));
+            }
+            if (errorRate(result) - errorRate(expected) > tolerance) {
+                regressions.add(String.format("%s: error rate %.1f%% -> %.1f%%",
+                        operation, errorRate(expected) * 100, errorRate(result) * 100));
+            }
+        });
+        return regressions;
+    }
+
+    private static double change(double expected, double actual) {
+        return expected == 0 ? 0 : (actual - expected) / expected;
+    }
+
+    private static double errorRate(Report.OperationResult result) {
+        return result.count() == 0 ? 0 : (double) result.errors() / result.count();
+    }
+}
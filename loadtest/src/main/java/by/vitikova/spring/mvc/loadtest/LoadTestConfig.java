@@ -0,0 +1,92 @@
+package by.vitikova.spring.mvc.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста.
+ * <p>
+ * Параметры задаются системными свойствами с префиксом {@code loadtest.}, например
+ * {@code -Dloadtest.concurrency=64}. Смесь сценариев {@code loadtest.mix} задается
+ * весами в виде {@code sign-in:2,me:6,admin:1,logout:1}: каждый рабочий поток перед
+ * очередной итерацией выбирает сценарий с вероятностью, пропорциональной весу.
+ *
+ * @param baseUrl      адрес приложения
+ * @param concurrency  число рабочих потоков, каждый выполняет итерации последовательно
+ * @param warmup       длительность прогрева, результаты которого не учитываются
+ * @param duration     длительность измерения
+ * @param users        число пользователей, создаваемых перед тестом
+ * @param password     пароль создаваемых пользователей
+ * @param mix          веса сценариев по названию
+ * @param result       файл результатов
+ * @param baseline     файл эталонных результатов
+ * @param saveBaseline сохранить результаты как эталонные
+ * @param tolerance    допустимое относительное ухудшение пропускной способности и задержек
+ */
+public record LoadTestConfig(
+        URI baseUrl,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        int users,
+        String password,
+        Map<String, Integer> mix,
+        Path result,
+        Path baseline,
+        boolean saveBaseline,
+        double tolerance) {
+
+    private static final String PREFIX = "loadtest.";
+
+    /**
+     * Читает параметры из системных свойств.
+     *
+     * @return параметры нагрузочного теста
+     */
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                URI.create(property("base-url", "http://localhost:8080")),
+                Integer.parseInt(property("concurrency", "32")),
+                Duration.ofSeconds(Long.parseLong(property("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(property("duration", "60"))),
+                Integer.parseInt(property("users", "100")),
+                property("password", "loadtest-password"),
+                parseMix(property("mix", "sign-in:2,me:6,admin:1,logout:1")),
+                Path.of(property("result", "loadtest-result.json")),
+                Path.of(property("baseline", "loadtest/baseline.json")),
+                Boolean.parseBoolean(property("save-baseline", "false")),
+                Double.parseDouble(property("tolerance", "0.1")));
+    }
+
+    /**
+     * Разбирает веса сценариев.
+     *
+     * @param value строка вида {@code name:weight,name:weight}
+     * @return веса сценариев в порядке перечисления
+     * @throws IllegalArgumentException если строка не соответствует формату
+     */
+    static Map<String, Integer> parseMix(String value) {
+        var mix = new LinkedHashMap<String, Integer>();
+        for (var entry : value.split(",")) {
+            var parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid scenario weight: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(parts[0].trim(), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("No scenarios selected: " + value);
+        }
+        return mix;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+}
@@ -0,0 +1,137 @@
+package by.vitikova.spring.mvc.loadtest;
+
+import by.vitikova.spring.mvc.loadtest.scenario.AdminCrudScenario;
+import by.vitikova.spring.mvc.loadtest.scenario.CurrentUserScenario;
+import by.vitikova.spring.mvc.loadtest.scenario.Fixture;
+import by.vitikova.spring.mvc.loadtest.scenario.LogoutChurnScenario;
+import by.vitikova.spring.mvc.loadtest.scenario.Scenario;
+import by.vitikova.spring.mvc.loadtest.scenario.SignInStormScenario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Точка входа нагрузочного теста.
+ * <p>
+ * Создает тестовых пользователей, прогревает приложение, затем в течение
+ * {@code loadtest.duration} секунд выполняет смесь сценариев в замкнутом цикле:
+ * каждый рабочий поток отправляет следующий запрос сразу после ответа на предыдущий.
+ * Результаты выводятся таблицей и сохраняются в {@code loadtest.result}. Если задан
+ * {@code loadtest.save-baseline}, результаты сохраняются как эталонные; иначе они
+ * сравниваются с эталонными, и при ухудшении тест завершается с кодом 1.
+ */
+public final class LoadTestRunner {
+
+    private static final List<Scenario> SCENARIOS = List.of(
+            new SignInStormScenario(),
+            new CurrentUserScenario(),
+            new AdminCrudScenario(),
+            new LogoutChurnScenario());
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var config = LoadTestConfig.fromSystemProperties();
+        var mix = mix(config);
+        var client = new ApiClient(config.baseUrl());
+        var objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        System.out.printf("Creating %d users at %s%n", config.users(), config.baseUrl());
+        var fixture = Fixture.create(client, config.users(), config.password(), config.concurrency());
+        System.out.printf("Warming up for %d s%n", config.warmup().toSeconds());
+        run(client, fixture, mix, config.concurrency(), config.warmup());
+        System.out.printf("Measuring for %d s%n", config.duration().toSeconds());
+        long start = System.nanoTime();
+        var recorders = run(client, fixture, mix, config.concurrency(), config.duration());
+        var report = Report.of(recorders, Duration.ofNanos(System.nanoTime() - start), config);
+
+        report.print();
+        objectMapper.writeValue(config.result().toFile(), report);
+        if (config.saveBaseline()) {
+            objectMapper.writeValue(config.baseline().toFile(), report);
+            System.out.printf("Baseline saved to %s%n", config.baseline());
+            return;
+        }
+        if (!Files.exists(config.baseline())) {
+            System.out.printf("Baseline %s not found, comparison skipped%n", config.baseline());
+            return;
+        }
+        var regressions = Baseline.compare(objectMapper.readValue(config.baseline().toFile(), Report.class),
+                report, config.tolerance());
+        if (!regressions.isEmpty()) {
+            System.out.println("Regressions against the baseline:");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No regressions against the baseline");
+    }
+
+    /**
+     * Выполняет смесь сценариев заданное время.
+     *
+     * @param client      клиент API
+     * @param fixture     тестовые пользователи
+     * @param mix         сценарии, каждый повторен по своему весу
+     * @param concurrency число рабочих потоков
+     * @param duration    длительность
+     * @return результаты рабочих потоков
+     */
+    private static List<Recorder> run(ApiClient client, Fixture fixture, List<Scenario> mix, int concurrency,
+                                      Duration duration) throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        var executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            var futures = new ArrayList<Future<Recorder>>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    var recorder = new Recorder();
+                    var random = ThreadLocalRandom.current();
+                    while (System.nanoTime() - deadline < 0) {
+                        mix.get(random.nextInt(mix.size())).run(client, fixture, recorder);
+                    }
+                    return recorder;
+                }));
+            }
+            var recorders = new ArrayList<Recorder>();
+            for (var future : futures) {
+                recorders.add(future.get());
+            }
+            return recorders;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Раскрывает веса сценариев в список, из которого сценарий выбирается равновероятно.
+     *
+     * @param config параметры теста
+     * @return сценарии, каждый повторен по своему весу
+     * @throws IllegalArgumentException если сценарий не найден
+     */
+    private static List<Scenario> mix(LoadTestConfig config) {
+        var byName = SCENARIOS.stream().collect(Collectors.toMap(Scenario::name, Function.identity()));
+        return config.mix().entrySet().stream()
+                .flatMap(entry -> {
+                    var scenario = byName.get(entry.getKey());
+                    if (scenario == null) {
+                        throw new IllegalArgumentException("Unknown scenario: " + entry.getKey()
+                                + ", expected one of " + byName.keySet());
+                    }
+                    return Stream.generate(() -> scenario).limit(entry.getValue());
+                })
+                .toList();
+    }
+}
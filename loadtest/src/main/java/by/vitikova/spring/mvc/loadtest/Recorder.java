@@ -0,0 +1,88 @@
+package by.vitikova.spring.mvc.loadtest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Результаты запросов одного рабочего потока.
+ * <p>
+ * Каждый рабочий поток пишет в собственный экземпляр без синхронизации;
+ * после окончания измерения результаты потоков объединяются в {@link Report}.
+ */
+public class Recorder {
+
+    private final Map<String, Samples> operations = new HashMap<>();
+
+    /**
+     * Записывает результат запроса.
+     *
+     * @param operation название операции
+     * @param status    код ответа или 0, если ответ не получен
+     * @param success   {@code true}, если ответ ожидаемый
+     * @param nanos     время выполнения запроса в наносекундах
+     */
+    public void record(String operation, int status, boolean success, long nanos) {
+        operations.computeIfAbsent(operation, k -> new Samples()).add(status, success, nanos);
+    }
+
+    Map<String, Samples> operations() {
+        return operations;
+    }
+
+    /**
+     * Результаты одной операции.
+     */
+    static class Samples {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        private void add(int status, boolean success, long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+            statuses.merge(status, 1L, Long::sum);
+        }
+
+        /**
+         * Добавляет результаты другого потока.
+         *
+         * @param other результаты другого потока
+         */
+        void merge(Samples other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+        }
+
+        long[] sortedLatencies() {
+            var sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        int count() {
+            return count;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        Map<Integer, Long> statuses() {
+            return statuses;
+        }
+    }
+}
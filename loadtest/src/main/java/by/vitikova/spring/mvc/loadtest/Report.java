@@ -0,0 +1,119 @@
+package by.vitikova.spring.mvc.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Итоговые результаты нагрузочного теста по операциям.
+ *
+ * @param durationSeconds длительность измерения в секундах
+ * @param concurrency     число рабочих потоков
+ * @param mix             веса сценариев
+ * @param operations      результаты операций по названию
+ */
+public record Report(
+        double durationSeconds,
+        int concurrency,
+        Map<String, Integer> mix,
+        Map<String, OperationResult> operations) {
+
+    private static final String ROW_FORMAT = "%-16s %9s %10s %8s %9s %9s %9s %9s %9s  %s%n";
+
+    /**
+     * Результаты одной операции. Задержки указаны в миллисекундах.
+     *
+     * @param count      число запросов
+     * @param errors     число неуспешных запросов
+     * @param throughput число запросов в секунду
+     * @param p50        медиана задержки
+     * @param p90        90-й процентиль задержки
+     * @param p99        99-й процентиль задержки
+     * @param p999       99.9-й процентиль задержки
+     * @param max        наибольшая задержка
+     * @param statuses   число ответов по коду, 0 - ответ не получен
+     */
+    public record OperationResult(
+            long count,
+            long errors,
+            double throughput,
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double max,
+            Map<Integer, Long> statuses) {
+    }
+
+    /**
+     * Объединяет результаты рабочих потоков.
+     *
+     * @param recorders результаты рабочих потоков
+     * @param duration  длительность измерения
+     * @param config    параметры теста
+     * @return итоговые результаты
+     */
+    public static Report of(List<Recorder> recorders, Duration duration, LoadTestConfig config) {
+        var merged = new TreeMap<String, Recorder.Samples>();
+        for (var recorder : recorders) {
+            recorder.operations().forEach((operation, samples) ->
+                    merged.computeIfAbsent(operation, k -> new Recorder.Samples()).merge(samples));
+        }
+        double seconds = duration.toNanos() / 1e9;
+        var operations = new TreeMap<String, OperationResult>();
+        merged.forEach((operation, samples) -> {
+            var latencies = samples.sortedLatencies();
+            operations.put(operation, new OperationResult(
+                    samples.count(),
+                    samples.errors(),
+                    samples.count() / seconds,
+                    percentile(latencies, 0.5),
+                    percentile(latencies, 0.9),
+                    percentile(latencies, 0.99),
+                    percentile(latencies, 0.999),
+                    percentile(latencies, 1.0),
+                    samples.statuses()));
+        });
+        return new Report(seconds, config.concurrency(), config.mix(), operations);
+    }
+
+    /**
+     * Выводит результаты таблицей.
+     */
+    public void print() {
+        System.out.printf("Duration %.1f s, %d workers, mix %s%n", durationSeconds, concurrency, mix);
+        System.out.printf(ROW_FORMAT, "operation", "count", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms",
+                "p99.9 ms", "max ms", "statuses");
+        operations.forEach((operation, result) -> System.out.printf(ROW_FORMAT,
+                operation,
+                result.count(),
+                format(result.throughput()),
+                result.errors(),
+                format(result.p50()),
+                format(result.p90()),
+                format(result.p99()),
+                format(result.p999()),
+                format(result.max()),
+                result.statuses()));
+    }
+
+    /**
+     * Вычисляет процентиль задержки методом ближайшего ранга.
+     *
+     * @param sorted   отсортированные задержки в наносекундах
+     * @param quantile доля от 0 до 1
+     * @return задержка в миллисекундах
+     */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+}
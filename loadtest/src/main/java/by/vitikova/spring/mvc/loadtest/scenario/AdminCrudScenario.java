@@ -0,0 +1,34 @@
+package by.vitikova.spring.mvc.loadtest.scenario;
+
+import by.vitikova.spring.mvc.loadtest.ApiClient;
+import by.vitikova.spring.mvc.loadtest.Recorder;
+
+import java.util.List;
+
+/**
+ * Полный цикл работы администратора с пользователем.
+ * <p>
+ * Администратор создает пользователя через {@code POST /api/users}, затем читает,
+ * переименовывает и удаляет его через {@code /api/users/{id}}.
+ */
+public class AdminCrudScenario implements Scenario {
+
+    @Override
+    public String name() {
+        return "admin";
+    }
+
+    @Override
+    public void run(ApiClient client, Fixture fixture, Recorder recorder) {
+        var adminToken = fixture.adminToken();
+        var created = client.create(recorder, "admin.create", adminToken, fixture.nextLogin("crud"),
+                fixture.password(), List.of("USER"));
+        var id = client.field(created, "id");
+        if (id == null) {
+            return;
+        }
+        client.findById(recorder, "admin.read", adminToken, id);
+        client.update(recorder, "admin.update", adminToken, id, fixture.nextLogin("renamed"));
+        client.delete(recorder, "admin.delete", adminToken, id);
+    }
+}
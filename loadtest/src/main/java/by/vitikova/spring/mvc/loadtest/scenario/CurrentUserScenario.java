@@ -0,0 +1,27 @@
+package by.vitikova.spring.mvc.loadtest.scenario;
+
+import by.vitikova.spring.mvc.loadtest.ApiClient;
+import by.vitikova.spring.mvc.loadtest.Recorder;
+
+/**
+ * Чтение текущего пользователя через {@code GET /api/users/me}.
+ * <p>
+ * Как и настоящий клиент, сценарий передает ETag из предыдущего ответа в заголовке
+ * If-None-Match, поэтому неизменившийся пользователь возвращается ответом 304.
+ */
+public class CurrentUserScenario implements Scenario {
+
+    @Override
+    public String name() {
+        return "me";
+    }
+
+    @Override
+    public void run(ApiClient client, Fixture fixture, Recorder recorder) {
+        var user = fixture.randomUser();
+        var response = client.me(recorder, "me", user.token(), user.eTag());
+        if (response.eTag() != null) {
+            user.eTag(response.eTag());
+        }
+    }
+}
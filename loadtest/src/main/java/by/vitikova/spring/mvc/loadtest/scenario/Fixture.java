@@ -0,0 +1,150 @@
+package by.vitikova.spring.mvc.loadtest.scenario;
+
+import by.vitikova.spring.mvc.loadtest.ApiClient;
+import by.vitikova.spring.mvc.loadtest.Recorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пользователи, создаваемые перед тестом.
+ * <p>
+ * Логины содержат метку запуска {@code loadtest-<метка>-}, поэтому повторные запуски
+ * на одной базе данных не конфликтуют, а тестовых пользователей легко найти и удалить.
+ * Создаются администратор для сценария {@code admin} и {@code loadtest.users}
+ * пользователей с ролью USER для остальных сценариев.
+ */
+public class Fixture {
+
+    private static final String SETUP_OPERATION = "setup";
+    private static final String DOMAIN = "@loadtest.local";
+
+    private final String prefix;
+    private final String password;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<TestUser> users = new ArrayList<>();
+    private String adminToken;
+
+    private Fixture(String prefix, String password) {
+        this.prefix = prefix;
+        this.password = password;
+    }
+
+    /**
+     * Тестовый пользователь.
+     */
+    public static class TestUser {
+
+        private final String login;
+        private volatile String token;
+        private volatile String eTag;
+
+        TestUser(String login, String token) {
+            this.login = login;
+            this.token = token;
+        }
+
+        public String login() {
+            return login;
+        }
+
+        public String token() {
+            return token;
+        }
+
+        public void token(String token) {
+            this.token = token;
+        }
+
+        public String eTag() {
+            return eTag;
+        }
+
+        public void eTag(String eTag) {
+            this.eTag = eTag;
+        }
+    }
+
+    /**
+     * Создает тестовых пользователей.
+     *
+     * @param client      клиент API
+     * @param count       число пользователей с ролью USER
+     * @param password    пароль пользователей
+     * @param concurrency число одновременных запросов регистрации
+     * @return созданные пользователи
+     * @throws IllegalStateException если пользователя не удалось создать
+     * @throws InterruptedException  если поток прерван во время создания пользователей
+     */
+    public static Fixture create(ApiClient client, int count, String password, int concurrency)
+            throws InterruptedException {
+        var fixture = new Fixture("loadtest-" + Long.toString(System.currentTimeMillis(), 36) + "-", password);
+        var recorder = new Recorder();
+        fixture.adminToken = client.signUp(recorder, SETUP_OPERATION, fixture.login("admin"), password,
+                List.of("ADMIN", "USER"));
+        if (fixture.adminToken == null) {
+            throw new IllegalStateException("Unable to create the admin user, check that sign up is not rate limited");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            var futures = new ArrayList<Future<TestUser>>();
+            for (int i = 0; i < count; i++) {
+                var login = fixture.login("user-" + i);
+                futures.add(executor.submit(() -> {
+                    var token = client.signUp(new Recorder(), SETUP_OPERATION, login, password, List.of("USER"));
+                    if (token == null) {
+                        throw new IllegalStateException("Unable to create user " + login);
+                    }
+                    return new TestUser(login, token);
+                }));
+            }
+            for (var future : futures) {
+                try {
+                    fixture.users.add(future.get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return fixture;
+    }
+
+    /**
+     * Возвращает случайного тестового пользователя.
+     *
+     * @return тестовый пользователь
+     */
+    public TestUser randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    /**
+     * Возвращает новый уникальный логин.
+     *
+     * @param kind вид пользователя
+     * @return логин
+     */
+    public String nextLogin(String kind) {
+        return login(kind + "-" + sequence.incrementAndGet());
+    }
+
+    public String adminToken() {
+        return adminToken;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    private String login(String name) {
+        return prefix + name + DOMAIN;
+    }
+}
@@ -0,0 +1,27 @@
+package by.vitikova.spring.mvc.loadtest.scenario;
+
+import by.vitikova.spring.mvc.loadtest.ApiClient;
+import by.vitikova.spring.mvc.loadtest.Recorder;
+
+/**
+ * Вход и немедленный выход случайного тестового пользователя.
+ * <p>
+ * Каждая итерация добавляет новый токен в черный список; токен пользователя,
+ * используемый остальными сценариями, при этом не отзывается.
+ */
+public class LogoutChurnScenario implements Scenario {
+
+    @Override
+    public String name() {
+        return "logout";
+    }
+
+    @Override
+    public void run(ApiClient client, Fixture fixture, Recorder recorder) {
+        var user = fixture.randomUser();
+        var token = client.signIn(recorder, "logout.sign-in", user.login(), fixture.password());
+        if (token != null) {
+            client.logout(recorder, "logout", token);
+        }
+    }
+}
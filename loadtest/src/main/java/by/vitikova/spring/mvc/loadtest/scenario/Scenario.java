@@ -0,0 +1,29 @@
+package by.vitikova.spring.mvc.loadtest.scenario;
+
+import by.vitikova.spring.mvc.loadtest.ApiClient;
+import by.vitikova.spring.mvc.loadtest.Recorder;
+
+/**
+ * Сценарий нагрузочного теста.
+ * <p>
+ * Итерация сценария выполняет один или несколько связанных запросов и записывает
+ * каждый из них в {@link Recorder} отдельной операцией.
+ */
+public interface Scenario {
+
+    /**
+     * Возвращает название сценария, по которому он выбирается в {@code loadtest.mix}.
+     *
+     * @return название сценария
+     */
+    String name();
+
+    /**
+     * Выполняет одну итерацию сценария.
+     *
+     * @param client   клиент API
+     * @param fixture  пользователи, созданные перед тестом
+     * @param recorder получатель результатов рабочего потока
+     */
+    void run(ApiClient client, Fixture fixture, Recorder recorder);
+}
@@ -0,0 +1,26 @@
+package by.vitikova.spring.mvc.loadtest.scenario;
+
+import by.vitikova.spring.mvc.loadtest.ApiClient;
+import by.vitikova.spring.mvc.loadtest.Recorder;
+
+/**
+ * Вход случайного тестового пользователя через {@code POST /api/auth/signIn}.
+ * <p>
+ * Полученный токен заменяет токен пользователя, который используют остальные сценарии.
+ */
+public class SignInStormScenario implements Scenario {
+
+    @Override
+    public String name() {
+        return "sign-in";
+    }
+
+    @Override
+    public void run(ApiClient client, Fixture fixture, Recorder recorder) {
+        var user = fixture.randomUser();
+        var token = client.signIn(recorder, "sign-in", user.login(), fixture.password());
+        if (token != null) {
+            user.token(token);
+        }
+    }
+}
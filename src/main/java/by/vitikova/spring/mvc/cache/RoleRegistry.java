@@ -0,0 +1,62 @@
+package by.vitikova.spring.mvc.cache;
+
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.exception.EntityNotFoundException;
+import by.vitikova.spring.mvc.model.entity.Role;
+import by.vitikova.spring.mvc.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Справочник ролей.
+ * <p>
+ * Таблица ролей - неизменяемые справочные данные, заполняемые миграцией, поэтому
+ * роли загружаются один раз при старте в неизменяемый {@link EnumMap} и далее
+ * выдаются без обращения к базе данных. Справочник перечитывается по запросу
+ * через {@link #refresh()}, а также если запрошенная роль в нем не найдена.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<RoleName, Role> roles = Collections.emptyMap();
+
+    /**
+     * Перечитывает роли из базы данных и атомарно заменяет справочник.
+     */
+    @PostConstruct
+    public void refresh() {
+        var loaded = new EnumMap<RoleName, Role>(RoleName.class);
+        roleRepository.findAll().forEach(role -> loaded.put(role.getName(), role));
+        roles = Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Возвращает роль по названию.
+     *
+     * @param name название роли
+     * @return роль
+     * @throws EntityNotFoundException если роль не найдена
+     */
+    public Role get(RoleName name) {
+        if (name == null) {
+            throw new EntityNotFoundException();
+        }
+        var role = roles.get(name);
+        if (role == null) {
+            refresh();
+            role = roles.get(name);
+        }
+        if (role == null) {
+            throw new EntityNotFoundException();
+        }
+        return role;
+    }
+}
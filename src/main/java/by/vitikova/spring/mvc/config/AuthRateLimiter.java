@@ -0,0 +1,88 @@
+package by.vitikova.spring.mvc.config;
+
+import by.vitikova.spring.mvc.exception.TooManyRequestsException;
+import by.vitikova.spring.mvc.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+import static by.vitikova.spring.mvc.constant.Constant.TOO_MANY_REQUESTS_ERROR;
+
+/**
+ * Ограничение частоты запросов входа и регистрации.
+ * <p>
+ * Запросы ограничиваются отдельно по адресу клиента и по логину, поэтому ни один
+ * клиент не может занять пул хеширования, а перебор паролей одного пользователя
+ * с разных адресов ограничен лимитом логина. Проверка выполняется до хеширования
+ * пароля и обращения к базе данных. Адрес клиента берется из
+ * {@code HttpServletRequest.getRemoteAddr()}; за балансировщиком нужно включить
+ * {@code server.forward-headers-strategy}.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final RateLimiter ipLimiter;
+    private final RateLimiter loginLimiter;
+    private final Counter ipRejected;
+    private final Counter loginRejected;
+
+    public AuthRateLimiter(@Value("${security.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${security.rate-limit.max-keys:100000}") long maxKeys,
+                           @Value("${security.rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${security.rate-limit.ip.refill-period:500}") long ipRefillPeriod,
+                           @Value("${security.rate-limit.login.capacity:5}") int loginCapacity,
+                           @Value("${security.rate-limit.login.refill-period:12000}") long loginRefillPeriod,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ipLimiter = new RateLimiter(ipCapacity, Duration.ofMillis(ipRefillPeriod), maxKeys);
+        this.loginLimiter = new RateLimiter(loginCapacity, Duration.ofMillis(loginRefillPeriod), maxKeys);
+        this.ipRejected = rejected(meterRegistry, "ip");
+        this.loginRejected = rejected(meterRegistry, "login");
+        Gauge.builder("auth.rate_limit.keys", ipLimiter, RateLimiter::size)
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.rate_limit.keys", loginLimiter, RateLimiter::size)
+                .tag("key", "login")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Проверяет лимиты адреса клиента и логина.
+     *
+     * @param address адрес клиента
+     * @param login   логин или {@code null}, если он не передан
+     * @throws TooManyRequestsException если один из лимитов исчерпан
+     */
+    public void acquire(String address, String login) {
+        if (!enabled) {
+            return;
+        }
+        if (!ipLimiter.tryAcquire(address)) {
+            ipRejected.increment();
+            throw new TooManyRequestsException(TOO_MANY_REQUESTS_ERROR);
+        }
+        if (login != null && !loginLimiter.tryAcquire(login)) {
+            loginRejected.increment();
+            throw new TooManyRequestsException(TOO_MANY_REQUESTS_ERROR);
+        }
+    }
+
+    /**
+     * Создает счетчик отклоненных запросов.
+     *
+     * @param meterRegistry реестр метрик
+     * @param key           вид ключа
+     * @return счетчик
+     */
+    private static Counter rejected(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.rate_limit.rejected")
+                .description("Sign in and sign up requests rejected by the rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
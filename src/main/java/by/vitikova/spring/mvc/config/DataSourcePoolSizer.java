@@ -0,0 +1,76 @@
+package by.vitikova.spring.mvc.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Подбор размера пула соединений с базой данных.
+ * <p>
+ * Подбор включается свойством {@code datasource.pool.auto-size} (по умолчанию
+ * выключен, в профиле {@code performance} включен), иначе размер пула остается
+ * размером HikariCP по умолчанию. Свойство проверяется при запуске, а не условием
+ * на бине, поэтому его можно менять и для приложения, собранного AOT.
+ * <p>
+ * Если {@code spring.datasource.hikari.maximum-pool-size} не задан, размер пула
+ * вычисляется по формуле HikariCP: удвоенное число ядер сервера базы данных плюс
+ * одно соединение на ожидание ввода-вывода. Размер не превышает ожидаемого числа
+ * одновременных запросов {@code datasource.pool.expected-concurrency}: лишние
+ * соединения только увеличивают конкуренцию за ядра и блокировки в базе данных.
+ * Число ядер базы данных задается {@code datasource.pool.database-cores}; если
+ * оно равно 0, используется число ядер приложения.
+ */
+@Slf4j
+@Component
+public class DataSourcePoolSizer implements BeanPostProcessor {
+
+    private static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+    private static final int SPINDLE_COUNT = 1;
+
+    private final Environment environment;
+    private final boolean autoSize;
+    private final int databaseCores;
+    private final int expectedConcurrency;
+
+    public DataSourcePoolSizer(Environment environment,
+                               @Value("${datasource.pool.auto-size:false}") boolean autoSize,
+                               @Value("${datasource.pool.database-cores:0}") int databaseCores,
+                               @Value("${datasource.pool.expected-concurrency:200}") int expectedConcurrency) {
+        this.environment = environment;
+        this.autoSize = autoSize;
+        this.databaseCores = databaseCores;
+        this.expectedConcurrency = expectedConcurrency;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (autoSize && bean instanceof HikariDataSource dataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+            int size = poolSize();
+            dataSource.setMaximumPoolSize(size);
+            log.info("Connection pool size {} selected for {} database cores and {} concurrent requests",
+                    size, cores(), expectedConcurrency);
+        }
+        return bean;
+    }
+
+    /**
+     * Вычисляет размер пула соединений.
+     *
+     * @return размер пула
+     */
+    private int poolSize() {
+        return Math.max(1, Math.min(cores() * 2 + SPINDLE_COUNT, expectedConcurrency));
+    }
+
+    /**
+     * Возвращает число ядер сервера базы данных.
+     *
+     * @return число ядер
+     */
+    private int cores() {
+        return databaseCores > 0 ? databaseCores : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,105 @@
+package by.vitikova.spring.mvc.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Фабрика кодировщика паролей.
+ * <p>
+ * Новые пароли хешируются алгоритмом {@code security.password.algorithm}
+ * ({@code bcrypt}, {@code pbkdf2} или {@code argon2}), а хеш хранится с префиксом
+ * алгоритма, например {@code {bcrypt}$2a$10$...}. Проверяются хеши любого из
+ * поддерживаемых алгоритмов; хеши без префикса, сохраненные до появления префиксов,
+ * проверяются как BCrypt.
+ * <p>
+ * Стоимость BCrypt задается {@code security.password.bcrypt.strength}. Если она
+ * равна 0, стоимость подбирается при запуске: выбирается наибольшая стоимость не ниже
+ * {@code security.password.bcrypt.min-strength}, при которой одно хеширование
+ * занимает не больше {@code security.password.target-latency} миллисекунд.
+ * Подобранная стоимость записывается в журнал; в кластере ее стоит закрепить
+ * в настройках, чтобы все узлы хешировали одинаково.
+ */
+@Slf4j
+@Component
+public class PasswordEncoderFactory {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String PBKDF2 = "pbkdf2";
+    private static final String ARGON2 = "argon2";
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final String algorithm;
+    private final int bcryptStrength;
+    private final int minBcryptStrength;
+    private final long targetLatency;
+
+    public PasswordEncoderFactory(@Value("${security.password.algorithm:bcrypt}") String algorithm,
+                                  @Value("${security.password.bcrypt.strength:0}") int bcryptStrength,
+                                  @Value("${security.password.bcrypt.min-strength:10}") int minBcryptStrength,
+                                  @Value("${security.password.target-latency:100}") long targetLatency) {
+        this.algorithm = algorithm;
+        this.bcryptStrength = bcryptStrength;
+        this.minBcryptStrength = minBcryptStrength;
+        this.targetLatency = targetLatency;
+    }
+
+    /**
+     * Создает кодировщик паролей.
+     *
+     * @return кодировщик паролей
+     * @throws IllegalStateException если алгоритм не поддерживается
+     */
+    public PasswordEncoder create() {
+        var bcrypt = new BCryptPasswordEncoder(bcryptStrength > 0 ? bcryptStrength : calibrateBcrypt());
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcrypt,
+                PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+                ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password hash algorithm: " + algorithm);
+        }
+        var encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Подбирает стоимость BCrypt под допустимое время хеширования.
+     *
+     * @return стоимость BCrypt
+     */
+    private int calibrateBcrypt() {
+        int strength = minBcryptStrength;
+        while (strength < MAX_BCRYPT_STRENGTH && measure(strength + 1) <= targetLatency) {
+            strength++;
+        }
+        log.info("BCrypt strength {} selected for a {} ms hashing budget", strength, targetLatency);
+        return strength;
+    }
+
+    /**
+     * Измеряет время хеширования BCrypt с заданной стоимостью.
+     *
+     * @param strength стоимость BCrypt
+     * @return наименьшее из двух измерений в миллисекундах
+     */
+    private long measure(int strength) {
+        var encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000;
+    }
+}
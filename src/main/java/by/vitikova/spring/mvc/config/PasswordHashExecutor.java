@@ -0,0 +1,158 @@
+package by.vitikova.spring.mvc.config;
+
+import by.vitikova.spring.mvc.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static by.vitikova.spring.mvc.constant.Constant.TOO_MANY_REQUESTS_ERROR;
+
+/**
+ * Выделенный пул потоков для вычисления хешей паролей.
+ * <p>
+ * Хеширование - самая затратная по процессору операция приложения, поэтому оно
+ * выполняется на пуле ограниченного размера (по умолчанию по числу ядер) с
+ * ограниченной очередью. Потоки обработки запросов в хешировании не участвуют
+ * и остаются свободными для остальных запросов.
+ * <p>
+ * Задачи входа и регистрации ({@link #execute}) при заполненной очереди сразу
+ * отклоняются с {@link TooManyRequestsException}. Задачи массовой обработки
+ * ({@link #submit}) занимают в пуле не больше мест, чем в нем потоков, и при
+ * заполненной очереди выполняются в вызывающем потоке, поэтому импорт
+ * замедляется сам, а не вытесняет вход пользователей.
+ * <p>
+ * Задачи, переданные из потока самого пула, выполняются сразу в этом потоке:
+ * ожидание результата задачи, стоящей в очереди того же пула, могло бы занять
+ * все его потоки.
+ */
+@Component
+public class PasswordHashExecutor implements DisposableBean {
+
+    private final CustomizableThreadFactory threadFactory;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore bulkPermits;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public PasswordHashExecutor(@Value("${security.password.hash-threads:0}") int threads,
+                                @Value("${security.password.hash-queue-capacity:64}") int queueCapacity,
+                                MeterRegistry meterRegistry) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.threadFactory = new CustomizableThreadFactory("password-hash-");
+        this.threadFactory.setThreadGroupName("password-hash");
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.bulkPermits = new Semaphore(size);
+        this.waitTimer = Timer.builder("auth.password.wait")
+                .description("Time a password hash task waits in the queue")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Password hash tasks rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue", executor, e -> e.getQueue().size())
+                .description("Password hash tasks waiting in the queue")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hash tasks being executed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет задачу массовой обработки в пуле.
+     * <p>
+     * Если в пуле уже столько задач массовой обработки, сколько в нем потоков,
+     * вызывающий поток ожидает завершения одной из них.
+     *
+     * @param task задача
+     * @param <T>  тип результата
+     * @return результат выполнения задачи
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (inPool()) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        bulkPermits.acquireUninterruptibly();
+        try {
+            var future = CompletableFuture.supplyAsync(timed(task), executor);
+            future.whenComplete((result, error) -> bulkPermits.release());
+            return future;
+        } catch (RejectedExecutionException e) {
+            bulkPermits.release();
+            return CompletableFuture.completedFuture(task.get());
+        }
+    }
+
+    /**
+     * Выполняет задачу хеширования в пуле и ожидает ее результат.
+     *
+     * @param task задача
+     * @param <T>  тип результата
+     * @return результат выполнения задачи
+     * @throws TooManyRequestsException если очередь пула заполнена
+     */
+    public <T> T execute(Supplier<T> task) {
+        if (inPool()) {
+            return task.get();
+        }
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(timed(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException(TOO_MANY_REQUESTS_ERROR);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Оборачивает задачу записью времени ожидания в очереди.
+     *
+     * @param task задача
+     * @param <T>  тип результата
+     * @return задача, записывающая время ожидания перед выполнением
+     */
+    private <T> Supplier<T> timed(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        return () -> {
+            waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            return task.get();
+        };
+    }
+
+    /**
+     * Проверяет, выполняется ли текущий поток в пуле.
+     *
+     * @return {@code true}, если текущий поток принадлежит пулу
+     */
+    private boolean inPool() {
+        return Thread.currentThread().getThreadGroup() == threadFactory.getThreadGroup();
+    }
+}
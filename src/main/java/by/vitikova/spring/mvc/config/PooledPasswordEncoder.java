@@ -0,0 +1,37 @@
+package by.vitikova.spring.mvc.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Кодировщик паролей, выполняющий хеширование в {@link PasswordHashExecutor}.
+ * <p>
+ * Число одновременно вычисляемых хешей ограничено размером пула, поэтому
+ * всплеск попыток входа не занимает хешированием все ядра процессора.
+ * Вызывающий поток ожидает результат, а при заполненной очереди пула
+ * получает {@link by.vitikova.spring.mvc.exception.TooManyRequestsException}.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashExecutor passwordHashExecutor;
+
+    public PooledPasswordEncoder(PasswordEncoder delegate, PasswordHashExecutor passwordHashExecutor) {
+        this.delegate = delegate;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return passwordHashExecutor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return passwordHashExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -3,7 +3,10 @@ package by.vitikova.spring.mvc.config;
 import by.vitikova.spring.mvc.config.filter.SecurityFilter;
 import by.vitikova.spring.mvc.config.service.UserDetailsServiceImpl;
 import by.vitikova.spring.mvc.constant.RoleName;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -18,11 +21,12 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import static by.vitikova.spring.mvc.constant.Constant.PUBLIC_ACTUATOR_ENDPOINTS;
+
 /**
  * Конфигурация безопасности приложения.
  * <p>
@@ -63,22 +67,32 @@ public class SecurityConfig {
      * <p>
      * Этот метод определяет политику создания сессии, правила доступа
      * и добавляет кастомный фильтр безопасности.
+     * <p>
+     * Асинхронные и error-диспетчеризации пропускаются без проверки: доступ к запросу
+     * уже проверен при исходной диспетчеризации, а при повторном проходе
+     * {@link SecurityFilter} не выполняется и контекст безопасности пуст. Без этого
+     * потоковые ответы ({@code StreamingResponseBody}) завершались отказом в доступе.
      *
-     * @param httpSecurity объект {@link HttpSecurity} для настройки безопасности
+     * @param httpSecurity           объект {@link HttpSecurity} для настройки безопасности
+     * @param authenticationProvider провайдер аутентификации
      * @return настроенная цепочка фильтров безопасности
      * @throws Exception если возникают проблемы с настройкой безопасности
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity,
+                                                   AuthenticationProvider authenticationProvider) throws Exception {
         return httpSecurity
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/users/me").hasAnyRole(RoleName.ADMIN.name(), RoleName.USER.name())
                         .requestMatchers(HttpMethod.GET, "/api/users/logout").permitAll()
+                        .requestMatchers(PUBLIC_ACTUATOR_ENDPOINTS).permitAll()
+                        .requestMatchers("/actuator/**").hasRole(RoleName.ADMIN.name())
                         .requestMatchers("/api/users/**").hasRole(RoleName.ADMIN.name())
                         .anyRequest().authenticated())
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -90,13 +104,14 @@ public class SecurityConfig {
      * {@link PasswordEncoder}, что позволяет аутентифицировать
      * пользователей на основе их учетных данных.
      *
+     * @param passwordEncoder кодировщик пароля
      * @return Настроенный {@link AuthenticationProvider}.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -117,12 +132,23 @@ public class SecurityConfig {
     }
 
     /**
-     * Создание кодировщика пароля.
+     * Создание кодировщика пароля. Алгоритм и стоимость хеширования задает
+     * {@link PasswordEncoderFactory}, время хеширования записывается в метрики.
+     * При {@code security.password.pooled: true} (по умолчанию) хеширование выполняется
+     * в {@link PasswordHashExecutor}, что ограничивает число одновременных вычислений.
      *
+     * @param passwordEncoderFactory фабрика кодировщика пароля
+     * @param meterRegistry          реестр метрик
+     * @param passwordHashExecutor   пул потоков для хеширования
+     * @param pooled                 выполнять ли хеширование в пуле
      * @return кодировщик пароля
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderFactory passwordEncoderFactory,
+                                           MeterRegistry meterRegistry,
+                                           PasswordHashExecutor passwordHashExecutor,
+                                           @Value("${security.password.pooled:true}") boolean pooled) {
+        PasswordEncoder encoder = new TimedPasswordEncoder(passwordEncoderFactory.create(), meterRegistry);
+        return pooled ? new PooledPasswordEncoder(encoder, passwordHashExecutor) : encoder;
     }
 }
\ No newline at end of file
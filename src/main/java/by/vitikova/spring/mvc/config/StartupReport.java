@@ -0,0 +1,69 @@
+package by.vitikova.spring.mvc.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Отчет о времени запуска приложения.
+ * <p>
+ * После запуска в журнал записываются общее время запуска, длительность этапов
+ * верхнего уровня (подготовка окружения, создание контекста, его обновление и т.д.)
+ * и {@code startup.report.slowest-beans} бинов, создававшихся дольше остальных.
+ * Время создания бина включает создание его зависимостей. Полная шкала этапов
+ * доступна администраторам по адресу {@code /actuator/startup}.
+ */
+@Slf4j
+@Component
+public class StartupReport {
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+    private static final String BEAN_NAME_TAG = "beanName";
+
+    @Value("${startup.report.slowest-beans:10}")
+    private int slowestBeans;
+
+    /**
+     * Записывает отчет о запуске в журнал.
+     *
+     * @param event событие готовности приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        log.info("Application started in {} ms", event.getTimeTaken().toMillis());
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        var timeline = startup.getBufferedTimeline();
+        timeline.getEvents().stream()
+                .filter(e -> e.getStartupStep().getParentId() == null)
+                .forEach(e -> log.info("Startup phase {}: {} ms", e.getStartupStep().getName(), e.getDuration().toMillis()));
+        timeline.getEvents().stream()
+                .filter(e -> BEAN_INSTANTIATE_STEP.equals(e.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(slowestBeans)
+                .forEach(e -> log.info("Startup bean {}: {} ms", beanName(e.getStartupStep()), e.getDuration().toMillis()));
+    }
+
+    /**
+     * Возвращает имя бина из тегов этапа создания бина.
+     *
+     * @param step этап создания бина
+     * @return имя бина
+     */
+    private static String beanName(StartupStep step) {
+        for (var tag : step.getTags()) {
+            if (BEAN_NAME_TAG.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
@@ -0,0 +1,53 @@
+package by.vitikova.spring.mvc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Кодировщик паролей, записывающий время работы другого кодировщика.
+ * <p>
+ * Время хеширования и проверки пароля записывается в таймер {@code auth.password}
+ * с тегом {@code operation} ({@code encode} или {@code matches}).
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = operation(meterRegistry, "encode");
+        this.matchesTimer = operation(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Создает таймер операции кодировщика.
+     *
+     * @param meterRegistry реестр метрик
+     * @param operation     название операции
+     * @return таймер
+     */
+    private static Timer operation(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password")
+                .description("Time spent hashing or verifying a password")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+package by.vitikova.spring.mvc.config;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Набор ключей для подписи и проверки токенов.
+ * <p>
+ * Объекты {@link Algorithm} и {@link JWTVerifier} потокобезопасны, поэтому создаются
+ * один раз при загрузке ключей и переиспользуются всеми запросами. Ключ для проверки
+ * выбирается по заголовку {@code kid} токена.
+ * <p>
+ * Токены без {@code kid}, выданные до появления идентификаторов ключей, проверяются
+ * секретом {@code security.jwt.token.secret-key}, которым они были подписаны, только
+ * пока включена настройка {@code security.jwt.token.accept-legacy}. Если настройка
+ * не задана, такие токены принимаются только без файла ключей: после перехода на
+ * файл ключей прежний секрет нельзя было бы вывести из употребления, и его
+ * владелец мог бы подделывать токены без {@code kid}. На время перехода настройку
+ * можно включить явно и выключить после истечения старых токенов.
+ * <p>
+ * Если задан файл ключей ({@code security.jwt.token.key-file}), набор ключей
+ * перечитывается из него при изменении файла и атомарно заменяется без перезапуска
+ * приложения. Формат файла:
+ * <pre>
+ * active=2024-10
+ * key.2024-09=старый секрет
+ * key.2024-10=новый секрет
+ * </pre>
+ * Ключи, оставшиеся в файле, продолжают приниматься при проверке, пока не истекут
+ * выданные ими токены.
+ */
+@Slf4j
+@Component
+public class TokenKeyRing {
+
+    private static final String ACTIVE_KEY = "active";
+    private static final String KEY_PREFIX = "key.";
+
+    private final JWTVerifier legacyVerifier;
+    private final Path keyFile;
+    private final AtomicReference<KeySet> keySet = new AtomicReference<>();
+    private volatile long keyFileModified;
+
+    public TokenKeyRing(@Value("${security.jwt.token.secret-key}") String secret,
+                        @Value("${security.jwt.token.key-id:default}") String keyId,
+                        @Value("${security.jwt.token.key-file:}") String keyFile,
+                        @Value("${security.jwt.token.accept-legacy:}") String acceptLegacy) {
+        this.keyFile = keyFile.isBlank() ? null : Path.of(keyFile);
+        boolean legacy = acceptLegacy.isBlank() ? this.keyFile == null : Boolean.parseBoolean(acceptLegacy);
+        this.legacyVerifier = legacy ? JWT.require(Algorithm.HMAC256(secret)).build() : null;
+        if (this.keyFile == null) {
+            keySet.set(buildKeySet(keyId, Map.of(keyId, secret)));
+        } else if (!reload()) {
+            throw new IllegalStateException("Unable to load JWT keys from " + keyFile);
+        }
+    }
+
+    /**
+     * Возвращает ключ, которым подписываются новые токены.
+     *
+     * @return активный ключ подписи
+     */
+    public SigningKey signingKey() {
+        return keySet.get().signingKey();
+    }
+
+    /**
+     * Возвращает проверяющий объект для ключа с указанным идентификатором.
+     *
+     * @param keyId идентификатор ключа из заголовка {@code kid} или {@code null}
+     * @return проверяющий объект или {@code null}, если ключ неизвестен или токены
+     * без {@code kid} не принимаются
+     */
+    public JWTVerifier verifier(String keyId) {
+        return keyId == null ? legacyVerifier : keySet.get().verifiers().get(keyId);
+    }
+
+    /**
+     * Атомарно заменяет набор ключей.
+     *
+     * @param activeKeyId идентификатор ключа для подписи новых токенов
+     * @param secrets     секреты, принимаемые при проверке, по идентификаторам ключей
+     */
+    public void rotate(String activeKeyId, Map<String, String> secrets) {
+        keySet.set(buildKeySet(activeKeyId, secrets));
+        log.info("JWT key ring rotated, active key '{}', accepted keys {}", activeKeyId, secrets.keySet());
+    }
+
+    /**
+     * Перечитывает файл ключей, если он изменился с момента последней загрузки.
+     * При ошибке чтения текущий набор ключей сохраняется.
+     *
+     * @return {@code true}, если актуальный набор ключей загружен
+     */
+    public boolean reload() {
+        if (keyFile == null) {
+            return true;
+        }
+        try {
+            var modified = Files.getLastModifiedTime(keyFile).toMillis();
+            if (modified == keyFileModified) {
+                return true;
+            }
+            var properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(keyFile)) {
+                properties.load(reader);
+            }
+            var secrets = new HashMap<String, String>();
+            properties.stringPropertyNames().stream()
+                    .filter(name -> name.startsWith(KEY_PREFIX))
+                    .forEach(name -> secrets.put(name.substring(KEY_PREFIX.length()), properties.getProperty(name)));
+            rotate(properties.getProperty(ACTIVE_KEY), secrets);
+            keyFileModified = modified;
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Unable to reload JWT keys from {}: {}", keyFile, e.getMessage());
+            return false;
+        }
+    }
+
+    private KeySet buildKeySet(String activeKeyId, Map<String, String> secrets) {
+        if (activeKeyId == null || !secrets.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("Active JWT key '" + activeKeyId + "' is not defined");
+        }
+        var algorithms = new HashMap<String, Algorithm>();
+        var verifiers = new HashMap<String, JWTVerifier>();
+        secrets.forEach((keyId, secret) -> {
+            var algorithm = Algorithm.HMAC256(secret);
+            algorithms.put(keyId, algorithm);
+            verifiers.put(keyId, JWT.require(algorithm).build());
+        });
+        return new KeySet(new SigningKey(activeKeyId, algorithms.get(activeKeyId)), Map.copyOf(verifiers));
+    }
+
+    /**
+     * Ключ подписи токенов.
+     *
+     * @param keyId     идентификатор ключа, записываемый в заголовок {@code kid}
+     * @param algorithm алгоритм подписи
+     */
+    public record SigningKey(String keyId, Algorithm algorithm) {
+    }
+
+    private record KeySet(SigningKey signingKey, Map<String, JWTVerifier> verifiers) {
+    }
+}
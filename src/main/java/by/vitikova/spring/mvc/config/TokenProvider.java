@@ -4,9 +4,8 @@ import by.vitikova.spring.mvc.constant.RoleName;
 import by.vitikova.spring.mvc.model.entity.Role;
 import by.vitikova.spring.mvc.model.entity.User;
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -15,7 +14,7 @@ import java.time.ZoneOffset;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static by.vitikova.spring.mvc.constant.Constant.GENERATION_TOKEN_ERROR;
+import static by.vitikova.spring.mvc.constant.Constant.*;
 
 /**
  * Класс, отвечающий за генерацию и проверку токенов аутентификации.
@@ -24,10 +23,10 @@ import static by.vitikova.spring.mvc.constant.Constant.GENERATION_TOKEN_ERROR;
  * их срока действия. Использует библиотеку JWT для обработки токенов.
  */
 @Component
+@RequiredArgsConstructor
 public class TokenProvider {
 
-    @Value("${security.jwt.token.secret-key}")
-    private String jwtSecret;
+    private final TokenKeyRing tokenKeyRing;
 
     /**
      * Генерирует токен доступа для пользователя.
@@ -45,13 +44,14 @@ public class TokenProvider {
                     .map(Role::getName)
                     .map(RoleName::name)
                     .collect(Collectors.toList());
-            Algorithm algorithm = Algorithm.HMAC256(jwtSecret);
+            var signingKey = tokenKeyRing.signingKey();
             return JWT.create()
+                    .withKeyId(signingKey.keyId())
                     .withSubject(user.getUsername())
-                    .withClaim("username", user.getUsername())
-                    .withClaim("roles", roles)
+                    .withClaim(USERNAME_CLAIM, user.getUsername())
+                    .withClaim(ROLES_CLAIM, roles)
                     .withExpiresAt(genAccessExpirationDate())
-                    .sign(algorithm);
+                    .sign(signingKey.algorithm());
         } catch (JWTCreationException exception) {
             throw new JWTCreationException(GENERATION_TOKEN_ERROR, exception);
         }
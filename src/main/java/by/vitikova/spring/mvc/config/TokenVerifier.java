@@ -0,0 +1,100 @@
+package by.vitikova.spring.mvc.config;
+
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.exception.InvalidJwtException;
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static by.vitikova.spring.mvc.constant.Constant.*;
+
+/**
+ * Класс, отвечающий за проверку токенов доступа.
+ * <p>
+ * Токен разбирается и проверяется за один проход: подпись и срок действия
+ * проверяются один раз, после чего данные токена возвращаются в виде
+ * неизменяемого объекта {@link TokenClaims}. Ключ проверки выбирается
+ * из {@link TokenKeyRing} по заголовку {@code kid} токена.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVerifier {
+
+    private final TokenKeyRing tokenKeyRing;
+
+    /**
+     * Проверяет подпись и срок действия токена и извлекает его данные.
+     *
+     * @param token JWT токен без префикса Bearer
+     * @return данные проверенного токена
+     * @throws InvalidJwtException если токен отсутствует или недействителен
+     */
+    public TokenClaims verify(String token) {
+        return verify(decode(token));
+    }
+
+    /**
+     * Разбирает токен без проверки подписи.
+     *
+     * @param token JWT токен без префикса Bearer
+     * @return разобранный токен
+     * @throws InvalidJwtException если токен отсутствует или не может быть разобран
+     */
+    public DecodedJWT decode(String token) {
+        if (token == null) {
+            throw new InvalidJwtException(INVALID_TOKEN_ERROR);
+        }
+        try {
+            return JWT.decode(token);
+        } catch (JWTDecodeException e) {
+            throw new InvalidJwtException(INVALID_TOKEN_ERROR);
+        }
+    }
+
+    /**
+     * Проверяет подпись и срок действия разобранного токена и извлекает его данные.
+     *
+     * @param decoded разобранный токен
+     * @return данные проверенного токена
+     * @throws InvalidJwtException если токен недействителен
+     */
+    public TokenClaims verify(DecodedJWT decoded) {
+        try {
+            var verifier = tokenKeyRing.verifier(decoded.getKeyId());
+            if (verifier == null) {
+                throw new InvalidJwtException(INVALID_TOKEN_ERROR);
+            }
+            var jwt = verifier.verify(decoded);
+            return new TokenClaims(
+                    decoded.getToken(),
+                    jwt.getClaim(USERNAME_CLAIM).asString(),
+                    toRoles(jwt.getClaim(ROLES_CLAIM).asList(String.class)),
+                    jwt.getExpiresAtAsInstant());
+        } catch (JWTVerificationException | IllegalArgumentException e) {
+            throw new InvalidJwtException(INVALID_TOKEN_ERROR);
+        }
+    }
+
+    /**
+     * Преобразует список названий ролей из токена в неизменяемый набор ролей.
+     *
+     * @param names названия ролей
+     * @return набор ролей
+     */
+    private Set<RoleName> toRoles(List<String> names) {
+        var roles = EnumSet.noneOf(RoleName.class);
+        if (names != null) {
+            names.forEach(name -> roles.add(RoleName.valueOf(name)));
+        }
+        return Collections.unmodifiableSet(roles);
+    }
+}
@@ -1,34 +1,90 @@
 package by.vitikova.spring.mvc.config.filter;
 
+import by.vitikova.spring.mvc.config.TokenVerifier;
 import by.vitikova.spring.mvc.config.service.UserDetailsServiceImpl;
 import by.vitikova.spring.mvc.exception.InvalidJwtException;
-import by.vitikova.spring.mvc.repository.TokenRepository;
-import by.vitikova.spring.mvc.service.AuthService;
-import by.vitikova.spring.mvc.util.TokenUtil;
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
+import by.vitikova.spring.mvc.service.RevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import java.util.List;
+
 import static by.vitikova.spring.mvc.constant.Constant.*;
 
 /**
  * Фильтр для проверки безопасности запросов с использованием JWT (JSON Web Tokens).
  * Этот фильтр перехватывает входящие HTTP запросы, извлекает токен из заголовка
  * Authorization, валидирует его и устанавливает аутентификацию в контекст безопасности.
+ * <p>
+ * В режиме без состояния ({@code security.jwt.stateless: true}) аутентификация
+ * строится из ролей, записанных в проверенном токене, и база данных для загрузки
+ * пользователя не используется. Изменение ролей в таком режиме вступает в силу
+ * после повторного входа пользователя.
+ * <p>
+ * Время каждого этапа фильтра записывается в таймер {@code security.filter.stage}
+ * с тегом {@code stage}: извлечение токена, разбор, проверка подписи, проверка
+ * черного списка и загрузка пользователя.
  */
 @Component
-@AllArgsConstructor
 public class SecurityFilter extends OncePerRequestFilter {
 
-    private AuthService authService;
-    private TokenUtil tokenUtil;
-    private TokenRepository tokenRepository;
-    private UserDetailsServiceImpl userDetailsService;
+    private final TokenVerifier tokenVerifier;
+    private final RevocationService revocationService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Timer recoverTimer;
+    private final Timer decodeTimer;
+    private final Timer signatureTimer;
+    private final Timer revocationTimer;
+    private final Timer userLookupTimer;
+
+    @Value("${security.jwt.stateless:false}")
+    private boolean stateless;
+
+    public SecurityFilter(TokenVerifier tokenVerifier,
+                          RevocationService revocationService,
+                          UserDetailsServiceImpl userDetailsService,
+                          MeterRegistry meterRegistry) {
+        this.tokenVerifier = tokenVerifier;
+        this.revocationService = revocationService;
+        this.userDetailsService = userDetailsService;
+        this.recoverTimer = stage(meterRegistry, "recover");
+        this.decodeTimer = stage(meterRegistry, "decode");
+        this.signatureTimer = stage(meterRegistry, "signature");
+        this.revocationTimer = stage(meterRegistry, "revocation");
+        this.userLookupTimer = stage(meterRegistry, "user_lookup");
+    }
+
+    /**
+     * Определяет запросы, которые не требуют токена: запросы на /auth и
+     * открытые конечные точки actuator.
+     *
+     * @param request объект HttpServletRequest, представляющий HTTP запрос
+     * @return {@code true}, если фильтр нужно пропустить
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        var uri = request.getRequestURI();
+        if (uri.contains("/auth")) {
+            return true;
+        }
+        for (String endpoint : PUBLIC_ACTUATOR_ENDPOINTS) {
+            if (uri.startsWith(endpoint)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     /**
      * Метод, выполняющий перехват запросов и проверку токена.
@@ -41,30 +97,60 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) {
         try {
-            // Проверяем, является ли запрос запросом на /auth
-            if (request.getRequestURI().contains("/auth")) {
-                // Если да, пропускаем фильтр и передаем запрос дальше
-                filterChain.doFilter(request, response);
-                return;
-            }
-            var token = this.recoverToken(request);
-            var login = tokenUtil.getUsername(token);
-            var user = userDetailsService.loadUserByUsername(login);
-            var authentication = new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            if (tokenRepository.existsByUsername(login)) {  // Лежит ли токен пользователя в черном списке
+            // Токен разбирается и проверяется один раз, дальше используются его данные
+            var token = recoverTimer.record(() -> this.recoverToken(request));
+            var decoded = decodeTimer.record(() -> tokenVerifier.decode(token));
+            var claims = signatureTimer.record(() -> tokenVerifier.verify(decoded));
+            if (revocationTimer.record(() -> revocationService.isRevoked(claims))) {  // Лежит ли токен в черном списке
                 throw new InvalidJwtException(NEED_LOGIN_ERROR);
             }
-            if (Boolean.FALSE.equals(authService.check(token))) {
-                throw new InvalidJwtException(INVALID_TOKEN_ERROR);
-            }
+            var authentication = stateless ? fromClaims(claims) : userLookupTimer.record(() -> fromUser(claims));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            request.setAttribute(TOKEN_CLAIMS_ATTRIBUTE, claims);
             filterChain.doFilter(request, response);
         } catch (Exception e) {
             throw new InvalidJwtException(INVALID_TOKEN_ERROR);
         }
     }
 
+    /**
+     * Создает аутентификацию по данным пользователя, загруженным из базы данных.
+     *
+     * @param claims данные проверенного токена
+     * @return аутентификация пользователя
+     */
+    private Authentication fromUser(TokenClaims claims) {
+        var user = userDetailsService.loadUserByUsername(claims.username());
+        return new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities());
+    }
+
+    /**
+     * Создает аутентификацию только по данным проверенного токена.
+     *
+     * @param claims данные проверенного токена
+     * @return аутентификация пользователя
+     */
+    private Authentication fromClaims(TokenClaims claims) {
+        List<SimpleGrantedAuthority> authorities = claims.roles().stream()
+                .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role.name()))
+                .toList();
+        return new UsernamePasswordAuthenticationToken(claims.username(), null, authorities);
+    }
+
+    /**
+     * Создает таймер этапа фильтра.
+     *
+     * @param meterRegistry реестр метрик
+     * @param stage         название этапа
+     * @return таймер
+     */
+    private static Timer stage(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("security.filter.stage")
+                .description("Time spent in a security filter stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
     /**
      * Метод для извлечения токена из HTTP запроса.
      *
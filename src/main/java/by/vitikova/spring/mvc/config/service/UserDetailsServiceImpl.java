@@ -1,16 +1,21 @@
 package by.vitikova.spring.mvc.config.service;
 
+import by.vitikova.spring.mvc.event.UserChangedEvent;
 import by.vitikova.spring.mvc.model.entity.User;
 import by.vitikova.spring.mvc.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.Optional;
 
 import static by.vitikova.spring.mvc.constant.Constant.ENTITY_NOT_FOUND_EXCEPTION;
+import static by.vitikova.spring.mvc.constant.Constant.USER_DETAILS_CACHE;
 
 /**
  * Реализация интерфейса {@link UserDetailsService} для загрузки данных пользователя
@@ -20,7 +25,9 @@ import static by.vitikova.spring.mvc.constant.Constant.ENTITY_NOT_FOUND_EXCEPTIO
  * обнаружение и регистрацию в рамках сканирования компонентов Spring.
  * <p>
  * Он использует {@link UserRepository} для получения информации о пользователе по
- * имени пользователя.
+ * имени пользователя. Загруженные пользователи кешируются с ограничением размера
+ * и времени жизни ({@code spring.cache.caffeine.spec}); запись удаляется из кеша
+ * после фиксации транзакции, изменившей пользователя.
  */
 @Component
 @AllArgsConstructor
@@ -41,6 +48,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @throws UsernameNotFoundException если пользователь с указанным именем не найден
      */
     @Override
+    @Cacheable(cacheNames = USER_DETAILS_CACHE)
     public UserDetails loadUserByUsername(String username) {
         Optional<User> userOptional = userRepository.findByLogin(username);
         if (userOptional.isPresent()) {
@@ -49,4 +57,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException(ENTITY_NOT_FOUND_EXCEPTION);
         }
     }
+
+    /**
+     * Удаляет пользователя из кеша после фиксации изменений.
+     *
+     * @param event событие изменения пользователя
+     */
+    @CacheEvict(cacheNames = USER_DETAILS_CACHE, key = "#event.login()")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evict(UserChangedEvent event) {
+    }
 }
\ No newline at end of file
@@ -11,10 +11,29 @@ public class Constant {
     public static final String PASSWORD_ERROR = "Password not same";
     public static final String USERNAME_NOT_EXIST = "Username not exists";
     public static final String PARSE_EXCEPTION = "JSON parsing exception";
+    public static final String INVALID_IMPORT_ROW = "Username, password and roles are required";
+    public static final String TOO_MANY_REQUESTS_ERROR = "Too many requests, try again later";
 
     // headers
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String BEARER_PREFIX = "Bearer ";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    // media types
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    // claims
+    public static final String USERNAME_CLAIM = "username";
+    public static final String ROLES_CLAIM = "roles";
+
+    // request attributes
+    public static final String TOKEN_CLAIMS_ATTRIBUTE = "tokenClaims";
+
+    // caches
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    // actuator
+    public static final String[] PUBLIC_ACTUATOR_ENDPOINTS = {"/actuator/health"};
 
     // role
     public static final String ROLE_PREFIX = "ROLE_";
@@ -0,0 +1,31 @@
+package by.vitikova.spring.mvc.constant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Формат выгрузки пользователей.
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+
+    /**
+     * Один JSON-объект {@code UserDto} на строку.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * Строки вида {@code id,login,ROLE1;ROLE2} с заголовком.
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * Записи с префиксом длины: {@code int} длина записи, затем {@code long} id,
+     * логин в modified UTF-8, {@code byte} количество ролей и названия ролей в modified UTF-8.
+     */
+    BINARY("application/octet-stream", "bin");
+
+    private final String mediaType;
+    private final String extension;
+}
@@ -0,0 +1,17 @@
+package by.vitikova.spring.mvc.constant;
+
+/**
+ * Формат входных данных массового импорта пользователей.
+ */
+public enum ImportFormat {
+
+    /**
+     * Один JSON-объект {@code UserCreateDto} на строку.
+     */
+    NDJSON,
+
+    /**
+     * Строки вида {@code username,password,ROLE1;ROLE2}, необязательная первая строка - заголовок.
+     */
+    CSV
+}
@@ -1,10 +1,12 @@
 package by.vitikova.spring.mvc.controller;
 
+import by.vitikova.spring.mvc.config.AuthRateLimiter;
 import by.vitikova.spring.mvc.model.dto.auth.JwtDto;
 import by.vitikova.spring.mvc.model.dto.auth.SignInDto;
 import by.vitikova.spring.mvc.model.dto.auth.SignUpDto;
 import by.vitikova.spring.mvc.service.AuthService;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,26 +23,31 @@ import static by.vitikova.spring.mvc.constant.Constant.BEARER_PREFIX;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
     /**
      * Регистрация нового пользователя
      *
-     * @param dto объект SignUpDto с данными для регистрации
+     * @param dto     объект SignUpDto с данными для регистрации
+     * @param request объект HttpServletRequest, из которого берется адрес клиента
      * @return объект ResponseEntity с созданным пользователем типа UserDto и статусом OK
      */
     @PostMapping("/signUp")
-    public ResponseEntity<JwtDto> signUp(@RequestBody SignUpDto dto) {
+    public ResponseEntity<JwtDto> signUp(@RequestBody SignUpDto dto, HttpServletRequest request) {
+        authRateLimiter.acquire(request.getRemoteAddr(), dto.username());
         return ResponseEntity.ok(authService.signUp(dto));
     }
 
     /**
      * Авторизация пользователя
      *
-     * @param dto объект SignInDto с данными для авторизации
+     * @param dto     объект SignInDto с данными для авторизации
+     * @param request объект HttpServletRequest, из которого берется адрес клиента
      * @return объект ResponseEntity с JWT-токеном типа JwtDto и статусом OK, если авторизация успешна
      */
     @PostMapping(value = "/signIn")
-    public ResponseEntity<JwtDto> signIn(@RequestBody SignInDto dto) {
+    public ResponseEntity<JwtDto> signIn(@RequestBody SignInDto dto, HttpServletRequest request) {
+        authRateLimiter.acquire(request.getRemoteAddr(), dto.username());
         return ResponseEntity.ok(authService.signIn(dto));
     }
 
@@ -1,17 +1,32 @@
 package by.vitikova.spring.mvc.controller;
 
+import by.vitikova.spring.mvc.constant.ExportFormat;
+import by.vitikova.spring.mvc.constant.ImportFormat;
+import by.vitikova.spring.mvc.model.dto.PageDto;
 import by.vitikova.spring.mvc.model.dto.UserDto;
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
+import by.vitikova.spring.mvc.model.dto.bulk.ImportResultDto;
 import by.vitikova.spring.mvc.model.dto.create.UserCreateDto;
 import by.vitikova.spring.mvc.model.dto.update.UserUpdateDto;
+import by.vitikova.spring.mvc.service.UserExportService;
+import by.vitikova.spring.mvc.service.UserImportService;
 import by.vitikova.spring.mvc.service.UserService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
-import static by.vitikova.spring.mvc.constant.Constant.AUTHORIZATION_HEADER;
+import static by.vitikova.spring.mvc.constant.Constant.TEXT_CSV_VALUE;
+import static by.vitikova.spring.mvc.constant.Constant.TOKEN_CLAIMS_ATTRIBUTE;
 
 /**
  * Контроллер для управления пользователями.
@@ -24,32 +39,59 @@ import static by.vitikova.spring.mvc.constant.Constant.AUTHORIZATION_HEADER;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final CacheControl USER_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
 
     /**
      * Получает информацию о текущем пользователе.
+     * <p>
+     * Ответ содержит ETag с версией пользователя. Если версия совпадает с заголовком
+     * If-None-Match, пользователь не загружается и возвращается статус 304 (Not Modified).
      *
-     * @param auth Заголовок авторизации, содержащий токен текущего пользователя.
-     * @return объект {@link ResponseEntity} с данными о пользователе и статусом 200 (OK).
+     * @param claims  данные токена текущего пользователя, проверенного фильтром безопасности.
+     * @param request объект WebRequest с заголовками условного запроса.
+     * @return объект {@link ResponseEntity} с данными о пользователе и статусом 200 (OK) или 304 (Not Modified).
      */
     @GetMapping("/me")
-    public ResponseEntity<UserDto> findCurrentUserById(@RequestHeader("Authorization") String auth) {
+    public ResponseEntity<UserDto> findCurrentUserById(@RequestAttribute(TOKEN_CLAIMS_ATTRIBUTE) TokenClaims claims,
+                                                       WebRequest request) {
+        var version = userService.findCurrentUserVersion(claims);
+        if (request.checkNotModified(eTag(version.id(), version.version()))) {
+            return notModified();
+        }
+        var user = userService.findCurrentUser(claims);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.findCurrentUser(auth));
+                .eTag(eTag(user.getId(), user.getVersion()))
+                .cacheControl(USER_CACHE_CONTROL)
+                .body(user);
     }
 
     /**
      * Получает пользователя по его идентификатору.
+     * <p>
+     * Ответ содержит ETag с версией пользователя. Если версия совпадает с заголовком
+     * If-None-Match, пользователь не загружается и возвращается статус 304 (Not Modified).
      *
-     * @param id Идентификатор пользователя.
-     * @return объект {@link ResponseEntity} с данными о пользователе и статусом 200 (OK).
+     * @param id      Идентификатор пользователя.
+     * @param request объект WebRequest с заголовками условного запроса.
+     * @return объект {@link ResponseEntity} с данными о пользователе и статусом 200 (OK) или 304 (Not Modified).
      */
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> findById(@PathVariable("id") Long id) {
+    public ResponseEntity<UserDto> findById(@PathVariable("id") Long id, WebRequest request) {
+        var version = userService.findVersionById(id);
+        if (request.checkNotModified(eTag(version.id(), version.version()))) {
+            return notModified();
+        }
+        var user = userService.findById(id);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.findById(id));
+                .eTag(eTag(user.getId(), user.getVersion()))
+                .cacheControl(USER_CACHE_CONTROL)
+                .body(user);
     }
 
     /**
@@ -64,6 +106,35 @@ public class UserController {
                 .body(userService.findAll());
     }
 
+    /**
+     * Получает страницу пользователей, начиная после указанного курсора.
+     *
+     * @param cursor курсор из поля {@code next} предыдущей страницы; для первой страницы не передается.
+     * @param size   размер страницы.
+     * @return объект {@link ResponseEntity} со страницей пользователей и статусом 200 (OK).
+     */
+    @GetMapping("/page")
+    public ResponseEntity<PageDto<UserDto>> findPage(@RequestParam(value = "cursor", required = false) Long cursor,
+                                                     @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userService.findPage(cursor, size));
+    }
+
+    /**
+     * Выгружает всех пользователей в формате NDJSON (один JSON-объект на строку),
+     * записывая их в ответ по мере чтения из базы данных.
+     *
+     * @return объект {@link ResponseEntity} с потоком пользователей и статусом 200 (OK).
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> userExportService.export(out, ExportFormat.NDJSON, false));
+    }
+
     /**
      * Создает нового пользователя.
      *
@@ -77,6 +148,51 @@ public class UserController {
                 .body(userService.create(personCreateDto));
     }
 
+    /**
+     * Выгружает всех пользователей с ролями в виде файла, записывая их в ответ
+     * по мере чтения из базы данных.
+     *
+     * @param format формат выгрузки: {@code CSV}, {@code BINARY} или {@code NDJSON}.
+     * @param gzip   сжимать ли выгрузку gzip.
+     * @return объект {@link ResponseEntity} с файлом выгрузки и статусом 200 (OK).
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "CSV") ExportFormat format,
+                                                        @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        var fileName = "users." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(out -> userExportService.export(out, format, gzip));
+    }
+
+    /**
+     * Массово импортирует пользователей из NDJSON (один {@link UserCreateDto} на строку).
+     *
+     * @param body тело запроса, читаемое потоком.
+     * @return объект {@link ResponseEntity} с результатом импорта и статусом 200 (OK).
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResultDto> importJson(InputStream body) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userImportService.importUsers(body, ImportFormat.NDJSON));
+    }
+
+    /**
+     * Массово импортирует пользователей из CSV со строками вида {@code username,password,ROLE1;ROLE2}.
+     *
+     * @param body тело запроса, читаемое потоком.
+     * @return объект {@link ResponseEntity} с результатом импорта и статусом 200 (OK).
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<ImportResultDto> importCsv(InputStream body) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userImportService.importUsers(body, ImportFormat.CSV));
+    }
+
     /**
      * Обновляет информацию о существующем пользователе.
      *
@@ -106,12 +222,35 @@ public class UserController {
     /**
      * Обрабатывает запрос на выход пользователя (logout) из системы.
      *
-     * @param auth токен аутентификации, переданный в заголовке запроса
+     * @param claims данные токена, проверенного фильтром безопасности
      * @return экземпляр {@link ResponseEntity}, представляющий ответ HTTP
      */
     @GetMapping("/logout")
-    public ResponseEntity<Void> logout(@RequestHeader(AUTHORIZATION_HEADER) String auth) {
-        userService.logout(auth);
+    public ResponseEntity<Void> logout(@RequestAttribute(TOKEN_CLAIMS_ATTRIBUTE) TokenClaims claims) {
+        userService.logout(claims);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
+
+    /**
+     * Формирует ETag пользователя из его идентификатора и версии.
+     *
+     * @param id      идентификатор пользователя
+     * @param version версия пользователя
+     * @return значение ETag
+     */
+    private static String eTag(Object id, Long version) {
+        return id + "-" + version;
+    }
+
+    /**
+     * Создает ответ 304 (Not Modified). ETag уже записан в ответ при проверке условного запроса.
+     *
+     * @return объект {@link ResponseEntity} со статусом 304 (Not Modified)
+     */
+    private static ResponseEntity<UserDto> notModified() {
+        return ResponseEntity
+                .status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(USER_CACHE_CONTROL)
+                .build();
+    }
 }
\ No newline at end of file
@@ -2,12 +2,16 @@ package by.vitikova.spring.mvc.controller.advice;
 
 import by.vitikova.spring.mvc.exception.EntityNotFoundException;
 import by.vitikova.spring.mvc.exception.InvalidJwtException;
+import by.vitikova.spring.mvc.exception.TooManyRequestsException;
 import by.vitikova.spring.mvc.model.dto.ErrorDto;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import static by.vitikova.spring.mvc.constant.Constant.RETRY_AFTER_HEADER;
+
 /**
  * Контроллер обработки исключений.
  * <p>
@@ -42,6 +46,20 @@ public class ExceptionHandlerController {
         return new ErrorDto(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
     }
 
+    /**
+     * Обработчик исключений для запросов, отклоненных из-за перегрузки.
+     *
+     * @param e        исключение {@link TooManyRequestsException}, содержащее информацию о причине ошибки.
+     * @param response объект HttpServletResponse, в который добавляется заголовок Retry-After.
+     * @return объект {@link ErrorDto} с сообщением об ошибке и статусом 429 (Too Many Requests).
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorDto error(TooManyRequestsException e, HttpServletResponse response) {
+        response.setHeader(RETRY_AFTER_HEADER, "1");
+        return new ErrorDto(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
     /**
      * Общий обработчик исключений для всех остальных случаев.
      * <p>
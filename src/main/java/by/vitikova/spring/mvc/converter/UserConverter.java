@@ -1,9 +1,12 @@
 package by.vitikova.spring.mvc.converter;
 
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.model.dto.RoleDto;
 import by.vitikova.spring.mvc.model.dto.UserDto;
 import by.vitikova.spring.mvc.model.dto.create.UserCreateDto;
 import by.vitikova.spring.mvc.model.dto.update.UserUpdateDto;
 import by.vitikova.spring.mvc.model.entity.User;
+import by.vitikova.spring.mvc.model.projection.UserView;
 import org.mapstruct.*;
 
 /**
@@ -23,6 +26,23 @@ public interface UserConverter {
      */
     UserDto convert(User source);
 
+    /**
+     * Преобразует облегченное представление {@link UserView} в объект типа {@link UserDto}.
+     *
+     * @param source исходное представление пользователя.
+     * @return преобразованный объект типа UserDto.
+     */
+    UserDto convert(UserView source);
+
+    /**
+     * Преобразует название роли в объект типа {@link RoleDto}.
+     *
+     * @param name название роли.
+     * @return объект типа RoleDto.
+     */
+    @Mapping(target = "name", source = "name")
+    RoleDto convert(RoleName name);
+
     /**
      * Объединяет данные из {@link UserUpdateDto} в существующую сущность {@link User}.
      *
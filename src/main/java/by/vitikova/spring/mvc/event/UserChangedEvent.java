@@ -0,0 +1,10 @@
+package by.vitikova.spring.mvc.event;
+
+/**
+ * Событие изменения пользователя: создание, обновление или удаление.
+ *
+ * @param login логин измененного пользователя
+ */
+public record UserChangedEvent(
+        String login) {
+}
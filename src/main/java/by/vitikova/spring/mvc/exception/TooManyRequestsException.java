@@ -0,0 +1,8 @@
+package by.vitikova.spring.mvc.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
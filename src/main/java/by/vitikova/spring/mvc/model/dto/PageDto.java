@@ -0,0 +1,15 @@
+package by.vitikova.spring.mvc.model.dto;
+
+import java.util.List;
+
+/**
+ * Страница результатов постраничной выборки по ключу.
+ *
+ * @param content элементы страницы
+ * @param next    курсор следующей страницы или {@code null}, если страница последняя
+ * @param <T>     тип элементов страницы
+ */
+public record PageDto<T>(
+        List<T> content,
+        Long next) {
+}
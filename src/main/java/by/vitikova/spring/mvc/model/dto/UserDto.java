@@ -1,5 +1,6 @@
 package by.vitikova.spring.mvc.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,4 +13,7 @@ public class UserDto {
     private String id;
     private String login;
     private Set<RoleDto> roleList;
+
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
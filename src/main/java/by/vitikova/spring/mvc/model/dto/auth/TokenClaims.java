@@ -0,0 +1,24 @@
+package by.vitikova.spring.mvc.model.dto.auth;
+
+import by.vitikova.spring.mvc.constant.RoleName;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Данные проверенного JWT-токена.
+ * <p>
+ * Создаются один раз при проверке подписи токена и далее передаются
+ * по цепочке обработки запроса без повторного декодирования.
+ *
+ * @param token    исходный токен без префикса Bearer
+ * @param username имя пользователя
+ * @param roles    роли пользователя
+ * @param exp      время истечения срока действия токена
+ */
+public record TokenClaims(
+        String token,
+        String username,
+        Set<RoleName> roles,
+        Instant exp) {
+}
@@ -0,0 +1,7 @@
+package by.vitikova.spring.mvc.model.dto.bulk;
+
+public record ImportErrorDto(
+        long line,
+        String username,
+        String errorMessage) {
+}
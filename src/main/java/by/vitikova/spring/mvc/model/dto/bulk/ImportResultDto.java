@@ -0,0 +1,9 @@
+package by.vitikova.spring.mvc.model.dto.bulk;
+
+import java.util.List;
+
+public record ImportResultDto(
+        long imported,
+        long failed,
+        List<ImportErrorDto> errors) {
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,7 +16,16 @@ import java.util.stream.Collectors;
 import static by.vitikova.spring.mvc.constant.Constant.ROLE_PREFIX;
 
 /**
- * Модель пользователя
+ * Модель пользователя.
+ * <p>
+ * Роли загружаются лениво: запросы одного пользователя подгружают их графом
+ * сущности, списки пользователей выбираются проекцией без сущностей, а остальные
+ * обращения к ролям загружают их пачками по {@link BatchSize}.
+ * Идентификаторы выделяются из последовательности блоками, что позволяет
+ * Hibernate объединять вставки в пакеты.
+ * <p>
+ * Версия увеличивается при каждом изменении пользователя, в том числе при
+ * изменении списка ролей, и используется для проверки актуальности ответа (ETag).
  */
 @Entity
 @Getter
@@ -25,13 +35,15 @@ import static by.vitikova.spring.mvc.constant.Constant.ROLE_PREFIX;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     private String login;
     private String passwordHash;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "link_user_role",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -40,6 +52,9 @@ public class User implements UserDetails {
     )
     private Set<Role> roleList;
 
+    @Version
+    private Long version;
+
     public User(String login, String passwordHash, Set<Role> roleList) {
         this.login = login;
         this.passwordHash = passwordHash;
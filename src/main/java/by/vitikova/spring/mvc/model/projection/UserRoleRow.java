@@ -0,0 +1,16 @@
+package by.vitikova.spring.mvc.model.projection;
+
+import by.vitikova.spring.mvc.constant.RoleName;
+
+/**
+ * Строка выборки пользователя с одной из его ролей.
+ *
+ * @param id    идентификатор пользователя
+ * @param login логин пользователя
+ * @param role  роль пользователя или {@code null}, если ролей нет
+ */
+public record UserRoleRow(
+        Long id,
+        String login,
+        RoleName role) {
+}
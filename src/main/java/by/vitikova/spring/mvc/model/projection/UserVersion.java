@@ -0,0 +1,12 @@
+package by.vitikova.spring.mvc.model.projection;
+
+/**
+ * Версия пользователя, читаемая без загрузки сущности и ролей.
+ *
+ * @param id      идентификатор пользователя
+ * @param version версия пользователя
+ */
+public record UserVersion(
+        Long id,
+        Long version) {
+}
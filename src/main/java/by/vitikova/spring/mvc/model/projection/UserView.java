@@ -0,0 +1,18 @@
+package by.vitikova.spring.mvc.model.projection;
+
+import by.vitikova.spring.mvc.constant.RoleName;
+
+import java.util.Set;
+
+/**
+ * Облегченное представление пользователя без загрузки сущностей.
+ *
+ * @param id       идентификатор пользователя
+ * @param login    логин пользователя
+ * @param roleList роли пользователя
+ */
+public record UserView(
+        Long id,
+        String login,
+        Set<RoleName> roleList) {
+}
@@ -1,17 +1,46 @@
 package by.vitikova.spring.mvc.repository;
 
 import by.vitikova.spring.mvc.model.entity.BlackList;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface TokenRepository extends JpaRepository<BlackList, Long> {
 
-    boolean existsByUsername(String username);
+    boolean existsByToken(String token);
+
+    @Modifying
+    @Query(value = "DELETE FROM black_list WHERE id IN " +
+            "(SELECT id FROM black_list WHERE exp < :exp ORDER BY exp LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("exp") LocalDateTime exp, @Param("limit") int limit);
+
+    @Query("select min(b.exp) from BlackList b")
+    Optional<LocalDateTime> findNextExpiry();
+
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryLock(@Param("key") long key);
+
+    List<BlackList> findAllByExpAfter(LocalDateTime exp);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.token from BlackList b where b.exp > :exp")
+    Stream<String> streamTokensByExpAfter(@Param("exp") LocalDateTime exp);
 
-    void deleteByUsername(String username);
+    List<BlackList> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
-    void deleteAllByExpBefore(LocalDateTime exp);
+    @Query("select coalesce(max(b.id), 0) from BlackList b")
+    long findMaxId();
 }
\ No newline at end of file
@@ -1,15 +1,68 @@
 package by.vitikova.spring.mvc.repository;
 
 import by.vitikova.spring.mvc.model.entity.User;
+import by.vitikova.spring.mvc.model.projection.UserRoleRow;
+import by.vitikova.spring.mvc.model.projection.UserVersion;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "roleList")
+    Optional<User> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "roleList")
+    List<User> findAll();
+
+    @EntityGraph(attributePaths = "roleList")
     Optional<User> findByLogin(String login);
 
     boolean existsUserByLogin(String login);
+
+    @Query("select new by.vitikova.spring.mvc.model.projection.UserVersion(u.id, u.version) from User u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select new by.vitikova.spring.mvc.model.projection.UserVersion(u.id, u.version) from User u where u.login = :login")
+    Optional<UserVersion> findVersionByLogin(@Param("login") String login);
+
+    @Query("select u.login from User u where u.login in :logins")
+    Set<String> findExistingLogins(@Param("logins") Collection<String> logins);
+
+    @Modifying
+    @Query("update versioned User u set u.passwordHash = :hash where u.id = :id and u.passwordHash = :expected")
+    int updatePasswordHash(@Param("id") Long id, @Param("expected") String expected, @Param("hash") String hash);
+
+    @Query("select new by.vitikova.spring.mvc.model.projection.UserRoleRow(u.id, u.login, r.name) " +
+            "from User u left join u.roleList r order by u.id")
+    List<UserRoleRow> findAllWithRoles();
+
+    @Query("select u.id from User u where u.id > :cursor order by u.id")
+    List<Long> findIdsAfter(@Param("cursor") Long cursor, Limit limit);
+
+    @Query("select new by.vitikova.spring.mvc.model.projection.UserRoleRow(u.id, u.login, r.name) " +
+            "from User u left join u.roleList r where u.id in :ids order by u.id")
+    List<UserRoleRow> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new by.vitikova.spring.mvc.model.projection.UserRoleRow(u.id, u.login, r.name) " +
+            "from User u left join u.roleList r order by u.id")
+    Stream<UserRoleRow> streamAllWithRoles();
 }
\ No newline at end of file
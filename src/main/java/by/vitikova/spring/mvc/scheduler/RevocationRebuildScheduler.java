@@ -0,0 +1,31 @@
+package by.vitikova.spring.mvc.scheduler;
+
+import by.vitikova.spring.mvc.service.RevocationService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Шедуллер, который периодически перестраивает фильтр Блума отозванных токенов
+ * из черного списка, чтобы убрать из него истекшие токены.
+ * <p>
+ * Нужен только в режиме {@code bloom}: индекс режима {@code index} очищается от
+ * истекших токенов на месте и перестраивается только при запуске.
+ */
+@Component
+@ConditionalOnProperty(name = "security.revocation.mode", havingValue = "bloom")
+@AllArgsConstructor
+public class RevocationRebuildScheduler {
+
+    private final RevocationService revocationService;
+
+    /**
+     * Перестраивает фильтр Блума отозванных токенов.
+     */
+    @Scheduled(initialDelayString = "${security.revocation.rebuild-interval:600000}",
+            fixedDelayString = "${security.revocation.rebuild-interval:600000}")
+    public void rebuild() {
+        revocationService.rebuild();
+    }
+}
@@ -0,0 +1,100 @@
+package by.vitikova.spring.mvc.scheduler;
+
+import by.vitikova.spring.mvc.model.entity.BlackList;
+import by.vitikova.spring.mvc.repository.TokenRepository;
+import by.vitikova.spring.mvc.service.RevocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Шедуллер, который распространяет отзыв токенов между экземплярами приложения.
+ * <p>
+ * Каждый экземпляр хранит свою копию отозванных токенов, поэтому выход пользователя,
+ * обработанный на другом узле, должен быть применен локально. Шедуллер запоминает
+ * максимальный обработанный идентификатор черного списка и раз в
+ * {@code security.revocation.sync.interval} миллисекунд читает по первичному ключу
+ * только новые записи, без полного просмотра таблицы.
+ * <p>
+ * Транзакции могут фиксироваться не в порядке выдачи идентификаторов, поэтому
+ * пропущенные идентификаторы запоминаются и перепроверяются, пока не появятся
+ * или не истечет {@code security.revocation.sync.gap-timeout}.
+ * <p>
+ * Для взаимного исключения используется {@link ReentrantLock}, а не {@code synchronized},
+ * чтобы ожидание ответа базы данных не закрепляло виртуальный поток за потоком-носителем.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevocationSyncScheduler {
+
+    private final TokenRepository tokenRepository;
+    private final RevocationService revocationService;
+
+    @Value("${security.revocation.sync.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${security.revocation.sync.gap-timeout:10000}")
+    private long gapTimeout;
+
+    private long watermark;
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Запоминает текущую позицию черного списка и загружает отозванные токены.
+     * Позиция читается до загрузки, поэтому записи, добавленные во время загрузки,
+     * будут получены при следующей синхронизации.
+     */
+    @PostConstruct
+    public void init() {
+        lock.lock();
+        try {
+            watermark = tokenRepository.findMaxId();
+            revocationService.rebuild();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Применяет записи черного списка, добавленные после последней синхронизации.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync.interval:1000}")
+    public void sync() {
+        lock.lock();
+        try {
+            var now = System.currentTimeMillis();
+            if (!gaps.isEmpty()) {
+                tokenRepository.findAllById(gaps.keySet()).forEach(entry -> {
+                    revocationService.apply(entry);
+                    gaps.remove(entry.getId());
+                });
+                gaps.values().removeIf(detected -> now - detected > gapTimeout);
+            }
+            List<BlackList> entries;
+            do {
+                entries = tokenRepository.findByIdGreaterThanOrderByIdAsc(watermark, Limit.of(batchSize));
+                for (var entry : entries) {
+                    if (entry.getId() - watermark <= batchSize) {
+                        for (long id = watermark + 1; id < entry.getId(); id++) {
+                            gaps.put(id, now);
+                        }
+                    }
+                    revocationService.apply(entry);
+                    watermark = entry.getId();
+                }
+            } while (entries.size() == batchSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
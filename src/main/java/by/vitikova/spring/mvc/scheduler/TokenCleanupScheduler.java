@@ -1,35 +1,135 @@
 package by.vitikova.spring.mvc.scheduler;
 
 import by.vitikova.spring.mvc.repository.TokenRepository;
-import lombok.AllArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
+import by.vitikova.spring.mvc.service.RevocationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * Шедуллер, который отвечает за удаление истекших токенов из черного списка.
  * <p>
- * Этот компонент периодически вызывает метод для очистки токенов, которые
- * достигли момента истечения срока действия, с заданным временным интервалом.
+ * Истекшие записи удаляются пачками по {@code security.revocation.cleanup.batch-size}
+ * строк одним запросом по индексу на {@code exp}. Каждая пачка удаляется в отдельной
+ * транзакции под advisory-блокировкой PostgreSQL, поэтому при нескольких экземплярах
+ * приложения удалением в каждый момент занимается только один из них.
  *
- * <p>Метод {@link #cleanupExpiredTokens()} будет вызываться каждую секунду
- * для удаления токенов, которые истекли.</p>
+ * <p>Метод {@link #cleanupExpiredTokens()} планирует свой следующий запуск на момент
+ * истечения ближайшего токена, но не раньше {@code min-delay} и не позже
+ * {@code max-delay} миллисекунд.</p>
  */
+@Slf4j
 @Component
-@AllArgsConstructor
 public class TokenCleanupScheduler {
 
+    /**
+     * Ключ advisory-блокировки очистки черного списка.
+     */
+    private static final long CLEANUP_LOCK_KEY = 0x426C61636B4C6973L;
+
     private final TokenRepository tokenRepository;
+    private final RevocationService revocationService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final Counter purged;
+    private final Timer duration;
+
+    @Value("${security.revocation.cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${security.revocation.cleanup.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${security.revocation.cleanup.min-delay:1000}")
+    private long minDelay;
+
+    @Value("${security.revocation.cleanup.max-delay:60000}")
+    private long maxDelay;
+
+    public TokenCleanupScheduler(TokenRepository tokenRepository,
+                                 RevocationService revocationService,
+                                 TransactionTemplate transactionTemplate,
+                                 TaskScheduler taskScheduler,
+                                 MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.revocationService = revocationService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.purged = Counter.builder("revocation.cleanup.purged")
+                .description("Expired black list rows deleted")
+                .register(meterRegistry);
+        this.duration = Timer.builder("revocation.cleanup.duration")
+                .description("Time spent deleting expired black list rows")
+                .register(meterRegistry);
+    }
 
     /**
-     * Удаляет токены из черного списка, которые истекли.
-     * Этот метод будет вызываться каждую секунду.
+     * Запускает очистку после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskScheduler.schedule(this::cleanupExpiredTokens, Instant.now());
+    }
+
+    /**
+     * Удаляет токены из черного списка и индекса отозванных токенов, которые истекли,
+     * и планирует следующий запуск.
      */
-    @Scheduled(fixedRate = 1000)
-    @Transactional
     public void cleanupExpiredTokens() {
-        tokenRepository.deleteAllByExpBefore(LocalDateTime.now());
+        var next = Instant.now().plusMillis(maxDelay);
+        try {
+            revocationService.evictExpired();
+            duration.record(this::purgeExpired);
+            next = nextRun();
+        } catch (RuntimeException e) {
+            log.warn("Black list cleanup failed: {}", e.getMessage());
+        } finally {
+            taskScheduler.schedule(this::cleanupExpiredTokens, next);
+        }
+    }
+
+    /**
+     * Удаляет истекшие записи пачками, пока они не закончатся или не будет
+     * достигнуто ограничение на количество пачек за один запуск.
+     */
+    private void purgeExpired() {
+        var now = LocalDateTime.now();
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer deleted = transactionTemplate.execute(status -> tokenRepository.tryAdvisoryLock(CLEANUP_LOCK_KEY)
+                    ? tokenRepository.deleteExpiredBatch(now, batchSize)
+                    : null);
+            if (deleted == null) {
+                return;  // очисткой занимается другой экземпляр приложения
+            }
+            purged.increment(deleted);
+            if (deleted < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Определяет момент следующего запуска по сроку действия ближайшего токена.
+     *
+     * @return момент следующего запуска
+     */
+    private Instant nextRun() {
+        var now = Instant.now();
+        var delay = tokenRepository.findNextExpiry()
+                .map(exp -> Duration.between(now, exp.atZone(ZoneId.systemDefault()).toInstant()).toMillis())
+                .orElse(maxDelay);
+        return now.plusMillis(Math.min(Math.max(delay, minDelay), maxDelay));
     }
-}
\ No newline at end of file
+}
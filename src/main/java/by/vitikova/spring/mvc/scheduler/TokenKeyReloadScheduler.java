@@ -0,0 +1,27 @@
+package by.vitikova.spring.mvc.scheduler;
+
+import by.vitikova.spring.mvc.config.TokenKeyRing;
+import lombok.AllArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Шедуллер, который отслеживает изменения файла ключей подписи токенов.
+ * <p>
+ * Позволяет ротировать секрет без перезапуска приложения: новый набор ключей
+ * подхватывается в течение интервала {@code security.jwt.token.key-reload-interval}.
+ */
+@Component
+@AllArgsConstructor
+public class TokenKeyReloadScheduler {
+
+    private final TokenKeyRing tokenKeyRing;
+
+    /**
+     * Перечитывает файл ключей, если он был изменен.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.token.key-reload-interval:30000}")
+    public void reloadKeys() {
+        tokenKeyRing.reload();
+    }
+}
@@ -0,0 +1,17 @@
+package by.vitikova.spring.mvc.service;
+
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
+import by.vitikova.spring.mvc.model.entity.BlackList;
+
+public interface RevocationService {
+
+    boolean isRevoked(TokenClaims claims);
+
+    void revoke(TokenClaims claims);
+
+    void apply(BlackList entry);
+
+    void evictExpired();
+
+    void rebuild();
+}
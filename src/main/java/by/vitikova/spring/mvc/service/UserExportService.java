@@ -0,0 +1,11 @@
+package by.vitikova.spring.mvc.service;
+
+import by.vitikova.spring.mvc.constant.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    void export(OutputStream output, ExportFormat format, boolean gzip) throws IOException;
+}
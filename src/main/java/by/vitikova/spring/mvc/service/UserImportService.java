@@ -0,0 +1,11 @@
+package by.vitikova.spring.mvc.service;
+
+import by.vitikova.spring.mvc.constant.ImportFormat;
+import by.vitikova.spring.mvc.model.dto.bulk.ImportResultDto;
+
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    ImportResultDto importUsers(InputStream input, ImportFormat format);
+}
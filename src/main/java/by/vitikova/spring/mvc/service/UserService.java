@@ -1,24 +1,36 @@
 package by.vitikova.spring.mvc.service;
 
+import by.vitikova.spring.mvc.model.dto.PageDto;
 import by.vitikova.spring.mvc.model.dto.UserDto;
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
 import by.vitikova.spring.mvc.model.dto.create.UserCreateDto;
 import by.vitikova.spring.mvc.model.dto.update.UserUpdateDto;
+import by.vitikova.spring.mvc.model.projection.UserVersion;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
-    UserDto findCurrentUser(String auth);
+    UserDto findCurrentUser(TokenClaims claims);
 
     UserDto findById(Long id);
 
+    UserVersion findCurrentUserVersion(TokenClaims claims);
+
+    UserVersion findVersionById(Long id);
+
     List<UserDto> findAll();
 
+    PageDto<UserDto> findPage(Long cursor, Integer size);
+
+    void streamAll(Consumer<UserDto> consumer);
+
     UserDto create(UserCreateDto dto);
 
     UserDto update(Long id, UserUpdateDto dto);
 
     void deleteById(Long id);
 
-    void logout(String token);
+    void logout(TokenClaims claims);
 }
\ No newline at end of file
@@ -1,22 +1,22 @@
 package by.vitikova.spring.mvc.service.impl;
 
+import by.vitikova.spring.mvc.cache.RoleRegistry;
 import by.vitikova.spring.mvc.config.TokenProvider;
+import by.vitikova.spring.mvc.config.TokenVerifier;
+import by.vitikova.spring.mvc.event.UserChangedEvent;
 import by.vitikova.spring.mvc.exception.EntityNotFoundException;
 import by.vitikova.spring.mvc.exception.InvalidJwtException;
+import by.vitikova.spring.mvc.exception.TooManyRequestsException;
 import by.vitikova.spring.mvc.model.dto.auth.JwtDto;
 import by.vitikova.spring.mvc.model.dto.auth.SignInDto;
 import by.vitikova.spring.mvc.model.dto.auth.SignUpDto;
 import by.vitikova.spring.mvc.model.entity.User;
-import by.vitikova.spring.mvc.repository.RoleRepository;
-import by.vitikova.spring.mvc.repository.TokenRepository;
 import by.vitikova.spring.mvc.repository.UserRepository;
 import by.vitikova.spring.mvc.service.AuthService;
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,15 +33,16 @@ import static by.vitikova.spring.mvc.constant.Constant.*;
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    private static final String SIGN_IN = "sign_in";
+    private static final String SIGN_UP = "sign_up";
+
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
-    private final TokenRepository tokenRepository;
+    private final RoleRegistry roleRegistry;
     private final TokenProvider tokenProvider;
-    private final AuthenticationManager authenticationManager;
+    private final TokenVerifier tokenVerifier;
     private final PasswordEncoder passwordEncoder;
-
-    @Value("${security.jwt.token.secret-key}")
-    private String secretKey;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Метод для регистрации нового пользователя
@@ -53,18 +54,21 @@ public class AuthServiceImpl implements AuthService {
     @Transactional
     public JwtDto signUp(SignUpDto dto) {
         if (!dto.password().equals(dto.passwordConfirm())) {
-            throw new InvalidJwtException(PASSWORD_ERROR);
+            throw failure(SIGN_UP, "password_mismatch", PASSWORD_ERROR);
         }
         if (Boolean.TRUE.equals(userRepository.existsUserByLogin(dto.username()))) {
-            throw new InvalidJwtException(USERNAME_IS_EXIST);
+            throw failure(SIGN_UP, "username_exists", USERNAME_IS_EXIST);
         }
         var encryptedPassword = passwordEncoder.encode(dto.password());
         var roleSet = dto.roleList().stream()
-                .map(roleDto -> roleRepository.findByName(roleDto.getName()).orElseThrow(EntityNotFoundException::new))
+                .map(roleDto -> roleRegistry.get(roleDto.getName()))
                 .collect(Collectors.toSet());
         var newUser = new User(dto.username(), encryptedPassword, roleSet);
         userRepository.save(newUser);
-        return buildJwt(dto.username(), dto.password());
+        eventPublisher.publishEvent(new UserChangedEvent(newUser.getLogin()));
+        var jwt = buildJwt(newUser);
+        success(SIGN_UP);
+        return jwt;
     }
 
     /**
@@ -77,16 +81,25 @@ public class AuthServiceImpl implements AuthService {
     @Transactional
     public JwtDto signIn(SignInDto dto) {
         try {
-            tokenRepository.deleteByUsername(dto.username());
             Optional<User> userOptional = userRepository.findByLogin(dto.username());
             if (userOptional.isEmpty()) {
-                throw new InvalidJwtException(USERNAME_NOT_EXIST);
+                throw failure(SIGN_IN, "unknown_user", USERNAME_NOT_EXIST);
             }
-            if (passwordEncoder.matches(dto.password(), userOptional.get().getPasswordHash())) {
-                return buildJwt(dto.username(), dto.password());
+            var user = userOptional.get();
+            if (passwordEncoder.matches(dto.password(), user.getPasswordHash())) {
+                upgradePassword(user, dto.password());
+                var jwt = buildJwt(user);
+                success(SIGN_IN);
+                return jwt;
             }
-            throw new InvalidJwtException(INVALID_TOKEN_ERROR);
+            throw failure(SIGN_IN, "bad_password", INVALID_TOKEN_ERROR);
+        } catch (InvalidJwtException e) {
+            throw new EntityNotFoundException(e.getMessage());
+        } catch (TooManyRequestsException e) {
+            attempts(SIGN_IN, "failure", "throttled").increment();
+            throw e;
         } catch (Exception e) {
+            attempts(SIGN_IN, "failure", "error").increment();
             throw new EntityNotFoundException(e.getMessage());
         }
     }
@@ -99,39 +112,88 @@ public class AuthServiceImpl implements AuthService {
      */
     @Override
     public boolean check(String token) {
-        return checkToken(token);
+        try {
+            tokenVerifier.verify(token);
+            return true;
+        } catch (InvalidJwtException ignored) {
+        }
+        return false;
     }
 
     /**
-     * Проверяет валидность JWT токена.
+     * Перехеширует пароль пользователя после успешного входа, если сохраненный хеш
+     * получен другим алгоритмом или с меньшей стоимостью, чем заданы сейчас.
+     * <p>
+     * Хеш заменяется только если он не изменился с момента чтения, поэтому
+     * одновременные входы одного пользователя не конфликтуют. При перегрузке пула
+     * хеширования обновление откладывается до следующего входа.
      *
-     * @param token JWT токен
-     * @return true, если токен валиден, иначе false
+     * @param user     пользователь с проверенным паролем
+     * @param password пароль пользователя
      */
-    private boolean checkToken(String token) {
+    private void upgradePassword(User user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            return;
+        }
         try {
-            var algorithm = Algorithm.HMAC256(secretKey);
-            JWT.require(algorithm)
-                    .build()
-                    .verify(token)
-                    .getSubject();
-            return true;
-        } catch (Exception ignored) {
+            var hash = passwordEncoder.encode(password);
+            if (userRepository.updatePasswordHash(user.getId(), user.getPasswordHash(), hash) > 0) {
+                eventPublisher.publishEvent(new UserChangedEvent(user.getLogin()));
+                meterRegistry.counter("auth.password.upgraded").increment();
+            }
+        } catch (TooManyRequestsException ignored) {
         }
-        return false;
     }
 
     /**
-     * Метод для создания и возвращения JWT-токена
+     * Метод для создания и возвращения JWT-токена.
+     * <p>
+     * Пароль пользователя к этому моменту уже проверен или только что захеширован,
+     * поэтому токен выдается без повторной аутентификации.
      *
-     * @param login    логин пользователя
-     * @param password пароль пользователя
+     * @param user пользователь
      * @return объект JwtDto, содержащий JWT-токен
      */
-    private JwtDto buildJwt(String login, String password) {
-        var usernamePassword = new UsernamePasswordAuthenticationToken(login, password);
-        var authUser = authenticationManager.authenticate(usernamePassword);
-        var accessToken = tokenProvider.generateAccessToken((User) authUser.getPrincipal());
-        return new JwtDto(accessToken);
+    private JwtDto buildJwt(User user) {
+        return new JwtDto(tokenProvider.generateAccessToken(user));
+    }
+
+    /**
+     * Учитывает успешную попытку входа или регистрации.
+     *
+     * @param operation операция
+     */
+    private void success(String operation) {
+        attempts(operation, "success", "none").increment();
+    }
+
+    /**
+     * Учитывает неудачную попытку входа или регистрации и создает исключение.
+     *
+     * @param operation операция
+     * @param reason    причина отказа
+     * @param message   сообщение исключения
+     * @return исключение для выброса
+     */
+    private InvalidJwtException failure(String operation, String reason, String message) {
+        attempts(operation, "failure", reason).increment();
+        return new InvalidJwtException(message);
+    }
+
+    /**
+     * Возвращает счетчик попыток входа или регистрации.
+     *
+     * @param operation операция
+     * @param result    результат
+     * @param reason    причина отказа
+     * @return счетчик
+     */
+    private Counter attempts(String operation, String result, String reason) {
+        return Counter.builder("auth.attempts")
+                .description("Sign in and sign up attempts")
+                .tag("operation", operation)
+                .tag("result", result)
+                .tag("reason", reason)
+                .register(meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package by.vitikova.spring.mvc.service.impl;
+
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
+import by.vitikova.spring.mvc.model.entity.BlackList;
+import by.vitikova.spring.mvc.repository.TokenRepository;
+import by.vitikova.spring.mvc.service.RevocationService;
+import by.vitikova.spring.mvc.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Реализация сервиса отзыва токенов на основе фильтра Блума.
+ * <p>
+ * В памяти хранится только компактный фильтр Блума подписей отозванных токенов.
+ * Большинство токенов не отозвано и отсекается фильтром без обращения к базе данных;
+ * только возможные совпадения проверяются точным запросом к черному списку.
+ * Фильтр периодически перестраивается из черного списка, что убирает из него
+ * истекшие токены, и пополняется при каждом выходе пользователя, в том числе
+ * на других экземплярах приложения.
+ * <p>
+ * Включается настройкой {@code security.revocation.mode: bloom}.
+ */
+@Service
+@ConditionalOnProperty(name = "security.revocation.mode", havingValue = "bloom")
+public class BloomRevocationServiceImpl implements RevocationService {
+
+    private final TokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedInsertions;
+    private final double fpp;
+
+    private final AtomicReference<BloomFilter> filter = new AtomicReference<>();
+    private volatile BloomFilter building;
+
+    private final Counter negative;
+    private final Counter truePositive;
+    private final Counter falsePositive;
+
+    public BloomRevocationServiceImpl(TokenRepository tokenRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${security.revocation.bloom.expected-insertions:1000000}") long expectedInsertions,
+                                      @Value("${security.revocation.bloom.fpp:0.001}") double fpp) {
+        this.tokenRepository = tokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.filter.set(new BloomFilter(expectedInsertions, fpp));
+        this.negative = checks(meterRegistry, "negative");
+        this.truePositive = checks(meterRegistry, "true_positive");
+        this.falsePositive = checks(meterRegistry, "false_positive");
+        Gauge.builder("revocation.bloom.memory", filter, f -> f.get().memoryBytes())
+                .description("Revocation bloom filter bit array size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("revocation.bloom.insertions", filter, f -> f.get().insertions())
+                .description("Tokens added to the revocation bloom filter since the last rebuild")
+                .register(meterRegistry);
+        Gauge.builder("revocation.bloom.expected.fpp", filter, f -> f.get().expectedFpp())
+                .description("Estimated false positive probability of the revocation bloom filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Проверяет, отозван ли токен. Точный запрос к черному списку выполняется
+     * только если фильтр Блума допускает, что токен был отозван.
+     *
+     * @param claims данные проверенного токена
+     * @return true, если токен находится в черном списке
+     */
+    @Override
+    public boolean isRevoked(TokenClaims claims) {
+        if (!filter.get().mightContain(hashOf(claims.token()))) {
+            negative.increment();
+            return false;
+        }
+        if (tokenRepository.existsByToken(claims.token())) {
+            truePositive.increment();
+            return true;
+        }
+        falsePositive.increment();
+        return false;
+    }
+
+    /**
+     * Отзывает токен: сохраняет его в черный список и добавляет в фильтр.
+     * <p>
+     * Токен добавляется в фильтр повторно после фиксации транзакции: перестроение,
+     * начавшееся до фиксации, может не увидеть запись в черном списке, и тогда токен
+     * попадает в новый фильтр только через видимую к этому моменту ссылку на него.
+     *
+     * @param claims данные проверенного токена
+     */
+    @Override
+    @Transactional
+    public void revoke(TokenClaims claims) {
+        var exp = LocalDateTime.ofInstant(claims.exp(), ZoneId.systemDefault());
+        tokenRepository.save(new BlackList(claims.username(), claims.token(), exp));
+        put(claims.token());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(claims.token());
+                }
+            });
+        }
+    }
+
+    /**
+     * Добавляет в фильтр запись черного списка, созданную другим экземпляром приложения.
+     *
+     * @param entry запись черного списка
+     */
+    @Override
+    public void apply(BlackList entry) {
+        put(entry.getToken());
+    }
+
+    /**
+     * Фильтр Блума не поддерживает удаление, истекшие токены убираются при перестроении.
+     */
+    @Override
+    public void evictExpired() {
+    }
+
+    /**
+     * Перестраивает фильтр из действующих записей черного списка и атомарно
+     * заменяет им текущий. Токены, отозванные во время перестроения, попадают
+     * в оба фильтра.
+     */
+    @Override
+    public void rebuild() {
+        var next = new BloomFilter(expectedInsertions, fpp);
+        building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (var tokens = tokenRepository.streamTokensByExpAfter(LocalDateTime.now())) {
+                    tokens.forEach(token -> next.put(hashOf(token)));
+                }
+            });
+            filter.set(next);
+        } finally {
+            building = null;
+        }
+    }
+
+    private void put(String token) {
+        var hash = hashOf(token);
+        filter.get().put(hash);
+        var next = building;
+        if (next != null) {
+            next.put(hash);
+        }
+    }
+
+    /**
+     * Возвращает хеш токена для фильтра - декодированную подпись HMAC-SHA256.
+     *
+     * @param token JWT токен
+     * @return подпись токена
+     */
+    private byte[] hashOf(String token) {
+        return Base64.getUrlDecoder().decode(token.substring(token.lastIndexOf('.') + 1));
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("revocation.bloom.checks")
+                .description("Revocation checks answered by the bloom filter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,130 @@
+package by.vitikova.spring.mvc.service.impl;
+
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
+import by.vitikova.spring.mvc.model.entity.BlackList;
+import by.vitikova.spring.mvc.repository.TokenRepository;
+import by.vitikova.spring.mvc.service.RevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Реализация сервиса отзыва токенов.
+ * <p>
+ * Отозванные токены хранятся в памяти в индексе, ключом которого является подпись
+ * токена (HMAC-SHA256 от его содержимого), поэтому проверка выполняется за O(1)
+ * без обращения к базе данных. Индекс загружается из черного списка при старте,
+ * пополняется при выходе пользователя и записями, добавленными другими экземплярами
+ * приложения, и очищается от истекших токенов в порядке
+ * их срока действия, так что его размер ограничен числом действующих отозванных токенов.
+ * <p>
+ * Используется по умолчанию ({@code security.revocation.mode: index}).
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "security.revocation.mode", havingValue = "index", matchIfMissing = true)
+public class RevocationServiceImpl implements RevocationService {
+
+    private final TokenRepository tokenRepository;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final NavigableSet<Expiry> expiryOrder = new ConcurrentSkipListSet<>();
+
+    /**
+     * Загружает действующие записи черного списка в индекс.
+     */
+    @Override
+    public void rebuild() {
+        tokenRepository.findAllByExpAfter(LocalDateTime.now())
+                .forEach(entry -> index(entry.getToken(), toInstant(entry.getExp())));
+    }
+
+    /**
+     * Проверяет, отозван ли токен.
+     *
+     * @param claims данные проверенного токена
+     * @return true, если токен находится в черном списке
+     */
+    @Override
+    public boolean isRevoked(TokenClaims claims) {
+        return revoked.containsKey(keyOf(claims.token()));
+    }
+
+    /**
+     * Отзывает токен: сохраняет его в черный список и добавляет в индекс.
+     *
+     * @param claims данные проверенного токена
+     */
+    @Override
+    @Transactional
+    public void revoke(TokenClaims claims) {
+        var exp = LocalDateTime.ofInstant(claims.exp(), ZoneId.systemDefault());
+        tokenRepository.save(new BlackList(claims.username(), claims.token(), exp));
+        index(claims.token(), claims.exp());
+    }
+
+    /**
+     * Добавляет в индекс запись черного списка, созданную другим экземпляром приложения.
+     *
+     * @param entry запись черного списка
+     */
+    @Override
+    public void apply(BlackList entry) {
+        index(entry.getToken(), toInstant(entry.getExp()));
+    }
+
+    /**
+     * Удаляет из индекса токены, срок действия которых истек.
+     */
+    @Override
+    public void evictExpired() {
+        var now = Instant.now();
+        for (var iterator = expiryOrder.iterator(); iterator.hasNext(); ) {
+            var expiry = iterator.next();
+            if (expiry.exp().isAfter(now)) {
+                return;
+            }
+            iterator.remove();
+            revoked.remove(expiry.key(), expiry.exp());
+        }
+    }
+
+    private void index(String token, Instant exp) {
+        var key = keyOf(token);
+        revoked.put(key, exp);
+        expiryOrder.add(new Expiry(exp, key));
+    }
+
+    /**
+     * Возвращает ключ индекса для токена - его подпись. Работает и для записей,
+     * сохраненных вместе с префиксом Bearer.
+     *
+     * @param token JWT токен
+     * @return подпись токена
+     */
+    private String keyOf(String token) {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+
+    private Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private record Expiry(Instant exp, String key) implements Comparable<Expiry> {
+
+        @Override
+        public int compareTo(Expiry other) {
+            int result = exp.compareTo(other.exp);
+            return result != 0 ? result : key.compareTo(other.key);
+        }
+    }
+}
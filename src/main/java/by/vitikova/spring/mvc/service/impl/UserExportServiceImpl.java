@@ -0,0 +1,141 @@
+package by.vitikova.spring.mvc.service.impl;
+
+import by.vitikova.spring.mvc.constant.ExportFormat;
+import by.vitikova.spring.mvc.model.dto.RoleDto;
+import by.vitikova.spring.mvc.model.dto.UserDto;
+import by.vitikova.spring.mvc.service.UserExportService;
+import by.vitikova.spring.mvc.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Реализация сервиса выгрузки пользователей.
+ * <p>
+ * Пользователи читаются курсором базы данных через {@link UserService#streamAll}
+ * и сразу записываются в выходной поток, поэтому расход памяти постоянен.
+ * Запись в поток ответа блокируется, пока клиент не примет данные, так что
+ * чтение из базы данных идет со скоростью клиента.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,login,roles\n";
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Выгружает всех пользователей в поток.
+     *
+     * @param output поток, в который выполняется выгрузка.
+     * @param format формат выгрузки.
+     * @param gzip   сжимать ли выгрузку gzip.
+     * @throws IOException если запись в поток не удалась.
+     */
+    @Override
+    public void export(OutputStream output, ExportFormat format, boolean gzip) throws IOException {
+        var gzipStream = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : null;
+        var out = new BufferedOutputStream(gzipStream != null ? gzipStream : output, BUFFER_SIZE);
+        RowWriter writer = switch (format) {
+            case NDJSON -> user -> {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            };
+            case CSV -> {
+                out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+                yield user -> out.write(toCsv(user).getBytes(StandardCharsets.UTF_8));
+            }
+            case BINARY -> binaryWriter(out);
+        };
+        try {
+            userService.streamAll(user -> {
+                try {
+                    writer.write(user);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+    }
+
+    /**
+     * Формирует строку CSV вида {@code id,login,ROLE1;ROLE2}.
+     *
+     * @param user пользователь.
+     * @return строка CSV с переводом строки в конце.
+     */
+    private String toCsv(UserDto user) {
+        var roles = user.getRoleList().stream()
+                .map(role -> role.getName().name())
+                .collect(Collectors.joining(";"));
+        return user.getId() + ',' + escapeCsv(user.getLogin()) + ',' + roles + '\n';
+    }
+
+    /**
+     * Экранирует значение CSV по RFC 4180: значение с запятой, кавычкой или
+     * переводом строки ({@code \n} или {@code \r}) заключается в кавычки,
+     * а кавычки внутри него удваиваются. Отсутствующее значение выгружается пустым полем.
+     *
+     * @param value значение.
+     * @return экранированное значение.
+     */
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Создает запись двоичного формата: запись собирается в переиспользуемом буфере,
+     * после чего в поток пишется ее длина и содержимое. Отсутствующий логин
+     * записывается пустой строкой.
+     *
+     * @param out выходной поток.
+     * @return запись двоичного формата.
+     */
+    private RowWriter binaryWriter(OutputStream out) {
+        var data = new DataOutputStream(out);
+        var record = new ByteArrayOutputStream(256);
+        var recordData = new DataOutputStream(record);
+        return user -> {
+            record.reset();
+            recordData.writeLong(Long.parseLong(user.getId()));
+            recordData.writeUTF(user.getLogin() == null ? "" : user.getLogin());
+            recordData.writeByte(user.getRoleList().size());
+            for (RoleDto role : user.getRoleList()) {
+                recordData.writeUTF(role.getName().name());
+            }
+            data.writeInt(record.size());
+            record.writeTo(data);
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+
+        void write(UserDto user) throws IOException;
+    }
+}
@@ -0,0 +1,330 @@
+package by.vitikova.spring.mvc.service.impl;
+
+import by.vitikova.spring.mvc.cache.RoleRegistry;
+import by.vitikova.spring.mvc.config.PasswordHashExecutor;
+import by.vitikova.spring.mvc.constant.ImportFormat;
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.event.UserChangedEvent;
+import by.vitikova.spring.mvc.exception.ParseException;
+import by.vitikova.spring.mvc.model.dto.bulk.ImportErrorDto;
+import by.vitikova.spring.mvc.model.dto.bulk.ImportResultDto;
+import by.vitikova.spring.mvc.model.dto.create.UserCreateDto;
+import by.vitikova.spring.mvc.model.entity.Role;
+import by.vitikova.spring.mvc.model.entity.User;
+import by.vitikova.spring.mvc.repository.UserRepository;
+import by.vitikova.spring.mvc.service.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static by.vitikova.spring.mvc.constant.Constant.*;
+
+/**
+ * Реализация сервиса массового импорта пользователей.
+ * <p>
+ * Входные данные читаются построчно и обрабатываются пачками по
+ * {@code users.import.batch-size} строк: для пачки одним запросом проверяются
+ * существующие логины, пароли хешируются параллельно в {@link PasswordHashExecutor},
+ * а пользователи и их роли сохраняются в отдельной транзакции пакетными
+ * JDBC-вставками. Если пачка не сохраняется, она делится пополам и сохраняется
+ * по частям, так что ошибки получают только строки, которые не удалось сохранить.
+ * Ошибки не прерывают импорт и возвращаются для каждой строки.
+ * <p>
+ * CSV разбирается по RFC 4180 с теми же правилами экранирования, что и при
+ * экспорте: поле в двойных кавычках может содержать запятые, переводы строк и
+ * удвоенные кавычки.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String CSV_HEADER = "username,password,roles";
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashExecutor passwordHashExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${users.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Импортирует пользователей из потока.
+     *
+     * @param input  поток с данными пользователей.
+     * @param format формат данных.
+     * @return количество импортированных пользователей и ошибки по строкам.
+     */
+    @Override
+    public ImportResultDto importUsers(InputStream input, ImportFormat format) {
+        var errors = new ArrayList<ImportErrorDto>();
+        var chunk = new ArrayList<ImportRow>(batchSize);
+        long imported = 0;
+        try (var reader = new RecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), format == ImportFormat.CSV)) {
+            String line;
+            while ((line = reader.next()) != null) {
+                long number = reader.line();
+                if (line.isBlank() || (format == ImportFormat.CSV && number == 1 && line.equals(CSV_HEADER))) {
+                    continue;
+                }
+                try {
+                    chunk.add(format == ImportFormat.CSV ? parseCsv(number, line) : parseJson(number, line));
+                } catch (RuntimeException e) {
+                    errors.add(new ImportErrorDto(number, null, e.getMessage()));
+                }
+                if (chunk.size() == batchSize) {
+                    imported += importChunk(chunk, errors);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, errors);
+        }
+        return new ImportResultDto(imported, errors.size(), errors);
+    }
+
+    /**
+     * Сохраняет пачку строк импорта.
+     *
+     * @param rows   строки импорта.
+     * @param errors список, в который добавляются ошибки.
+     * @return количество сохраненных пользователей.
+     */
+    private long importChunk(List<ImportRow> rows, List<ImportErrorDto> errors) {
+        var existing = userRepository.findExistingLogins(rows.stream().map(ImportRow::username).toList());
+        var unique = new HashSet<String>();
+        var accepted = new ArrayList<ImportRow>(rows.size());
+        for (var row : rows) {
+            if (existing.contains(row.username()) || !unique.add(row.username())) {
+                errors.add(new ImportErrorDto(row.line(), row.username(), USERNAME_IS_EXIST));
+            } else {
+                accepted.add(row);
+            }
+        }
+        var hashes = accepted.stream()
+                .map(row -> passwordHashExecutor.submit(() -> passwordEncoder.encode(row.password())))
+                .toList();
+        var hashed = new ArrayList<ImportRow>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            var row = accepted.get(i);
+            hashed.add(new ImportRow(row.line(), row.username(), hashes.get(i).join(), row.roles()));
+        }
+        return save(hashed, errors);
+    }
+
+    /**
+     * Сохраняет строки импорта с уже захешированными паролями в одной транзакции.
+     * Если транзакция не удалась, строки делятся пополам и сохраняются по частям,
+     * пока ошибка не будет отнесена к конкретной строке.
+     *
+     * @param rows   строки импорта, пароль в которых заменен хешем.
+     * @param errors список, в который добавляются ошибки.
+     * @return количество сохраненных пользователей.
+     */
+    private long save(List<ImportRow> rows, List<ImportErrorDto> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(rows.stream()
+                        .map(row -> new User(row.username(), row.password(), row.roles()))
+                        .toList());
+                rows.forEach(row -> eventPublisher.publishEvent(new UserChangedEvent(row.username())));
+            });
+            return rows.size();
+        } catch (DataAccessException e) {
+            if (rows.size() == 1) {
+                var row = rows.get(0);
+                errors.add(new ImportErrorDto(row.line(), row.username(), e.getMostSpecificCause().getMessage()));
+                return 0;
+            }
+            int half = rows.size() / 2;
+            return save(rows.subList(0, half), errors) + save(rows.subList(half, rows.size()), errors);
+        }
+    }
+
+    private ImportRow parseJson(long line, String json) {
+        UserCreateDto dto;
+        try {
+            dto = objectMapper.readValue(json, UserCreateDto.class);
+        } catch (JsonProcessingException e) {
+            throw new ParseException(PARSE_EXCEPTION);
+        }
+        if (dto.getPasswordConfirm() != null && !dto.getPasswordConfirm().equals(dto.getPassword())) {
+            throw new ParseException(PASSWORD_ERROR);
+        }
+        var roles = dto.getRoleList() == null
+                ? Set.<RoleName>of()
+                : dto.getRoleList().stream().map(Role::getName).collect(Collectors.toSet());
+        return toRow(line, dto.getUsername(), dto.getPassword(), roles);
+    }
+
+    private ImportRow parseCsv(long line, String csv) {
+        var fields = splitCsv(csv);
+        if (fields.size() != 3) {
+            throw new ParseException(INVALID_IMPORT_ROW);
+        }
+        var roles = Arrays.stream(fields.get(2).split(";"))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(RoleName::valueOf)
+                .collect(Collectors.toSet());
+        return toRow(line, fields.get(0).trim(), fields.get(1), roles);
+    }
+
+    /**
+     * Разбивает запись CSV на поля по RFC 4180.
+     *
+     * @param csv запись CSV без завершающего перевода строки.
+     * @return значения полей.
+     */
+    private static List<String> splitCsv(String csv) {
+        var fields = new ArrayList<String>();
+        int i = 0;
+        while (true) {
+            var field = new StringBuilder();
+            if (i < csv.length() && csv.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i == csv.length()) {
+                        throw new ParseException(INVALID_IMPORT_ROW);
+                    }
+                    char c = csv.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < csv.length() && csv.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < csv.length() && csv.charAt(i) != ',') {
+                    throw new ParseException(INVALID_IMPORT_ROW);
+                }
+            } else {
+                for (; i < csv.length() && csv.charAt(i) != ','; i++) {
+                    if (csv.charAt(i) == '"') {
+                        throw new ParseException(INVALID_IMPORT_ROW);
+                    }
+                    field.append(csv.charAt(i));
+                }
+            }
+            fields.add(field.toString());
+            if (i == csv.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+
+    private ImportRow toRow(long line, String username, String password, Set<RoleName> roleNames) {
+        if (username == null || username.isBlank() || password == null || password.isEmpty() || roleNames.isEmpty()) {
+            throw new ParseException(INVALID_IMPORT_ROW);
+        }
+        var roles = roleNames.stream().map(roleRegistry::get).collect(Collectors.toSet());
+        return new ImportRow(line, username, password, roles);
+    }
+
+    private record ImportRow(long line, String username, String password, Set<Role> roles) {
+    }
+
+    /**
+     * Чтение записей импорта. Запись NDJSON занимает одну строку, а запись CSV
+     * продолжается на следующих строках, пока открыто поле в кавычках.
+     */
+    private static final class RecordReader implements AutoCloseable {
+
+        private final BufferedReader reader;
+        private final boolean csv;
+        private long lines;
+        private long line;
+
+        RecordReader(BufferedReader reader, boolean csv) {
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        /**
+         * Читает следующую запись.
+         *
+         * @return запись без завершающего перевода строки или {@code null}, если данные закончились.
+         */
+        String next() throws IOException {
+            line = lines + 1;
+            if (!csv) {
+                var record = reader.readLine();
+                lines++;
+                return record;
+            }
+            var record = new StringBuilder();
+            boolean quoted = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '\r' || c == '\n') {
+                    boolean crlf = c == '\r' && peek() == '\n';
+                    if (!quoted) {
+                        if (crlf) {
+                            reader.read();
+                        }
+                        lines++;
+                        return record.toString();
+                    }
+                    if (!crlf) {
+                        lines++;
+                    }
+                } else if (c == '"') {
+                    quoted = !quoted;
+                }
+                record.append((char) c);
+            }
+            lines++;
+            return record.isEmpty() ? null : record.toString();
+        }
+
+        /**
+         * Возвращает номер строки, с которой начинается последняя прочитанная запись.
+         *
+         * @return номер строки.
+         */
+        long line() {
+            return line;
+        }
+
+        private int peek() throws IOException {
+            reader.mark(1);
+            int c = reader.read();
+            reader.reset();
+            return c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -1,27 +1,36 @@
 package by.vitikova.spring.mvc.service.impl;
 
+import by.vitikova.spring.mvc.cache.RoleRegistry;
+import by.vitikova.spring.mvc.constant.RoleName;
 import by.vitikova.spring.mvc.converter.UserConverter;
+import by.vitikova.spring.mvc.event.UserChangedEvent;
 import by.vitikova.spring.mvc.exception.EntityNotFoundException;
 import by.vitikova.spring.mvc.exception.InvalidJwtException;
+import by.vitikova.spring.mvc.model.dto.PageDto;
 import by.vitikova.spring.mvc.model.dto.UserDto;
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
 import by.vitikova.spring.mvc.model.dto.create.UserCreateDto;
 import by.vitikova.spring.mvc.model.dto.update.UserUpdateDto;
-import by.vitikova.spring.mvc.model.entity.BlackList;
 import by.vitikova.spring.mvc.model.entity.User;
-import by.vitikova.spring.mvc.repository.RoleRepository;
-import by.vitikova.spring.mvc.repository.TokenRepository;
+import by.vitikova.spring.mvc.model.projection.UserRoleRow;
+import by.vitikova.spring.mvc.model.projection.UserVersion;
+import by.vitikova.spring.mvc.model.projection.UserView;
 import by.vitikova.spring.mvc.repository.UserRepository;
+import by.vitikova.spring.mvc.service.RevocationService;
 import by.vitikova.spring.mvc.service.UserService;
-import by.vitikova.spring.mvc.util.TokenUtil;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static by.vitikova.spring.mvc.constant.Constant.USERNAME_IS_EXIST;
@@ -30,26 +39,33 @@ import static by.vitikova.spring.mvc.constant.Constant.USERNAME_IS_EXIST;
  * Реализация сервиса управления пользователями.
  */
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserConverter userConverter;
-    private final RoleRepository roleRepository;
-    private final TokenRepository tokenRepository;
-    private final TokenUtil tokenUtil;
+    private final RoleRegistry roleRegistry;
+    private final RevocationService revocationService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${users.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${users.page.max-size:500}")
+    private int maxPageSize;
 
     /**
-     * Находит текущего пользователя по токену авторизации.
+     * Находит текущего пользователя по данным проверенного токена.
      *
-     * @param auth токен авторизации для получения текущего пользователя.
+     * @param claims данные токена текущего пользователя.
      * @return объект {@link UserDto} с данными текущего пользователя.
      * @throws EntityNotFoundException если пользователь не найден.
      */
     @Override
-    public UserDto findCurrentUser(String auth) {
-        return userConverter.convert(userRepository.findByLogin(tokenUtil.getUsername(auth)).orElseThrow(EntityNotFoundException::new));
+    @Transactional(readOnly = true)
+    public UserDto findCurrentUser(TokenClaims claims) {
+        return userConverter.convert(userRepository.findByLogin(claims.username()).orElseThrow(EntityNotFoundException::new));
     }
 
     /**
@@ -60,19 +76,87 @@ public class UserServiceImpl implements UserService {
      * @throws EntityNotFoundException если пользователь не найден.
      */
     @Override
+    @Transactional(readOnly = true)
     public UserDto findById(Long id) {
         return userConverter.convert(userRepository.findById(id).orElseThrow(EntityNotFoundException::new));
     }
 
     /**
-     * Получает список всех пользователей.
+     * Находит версию текущего пользователя без загрузки сущности и ролей.
+     *
+     * @param claims данные проверенного токена.
+     * @return версия пользователя.
+     * @throws EntityNotFoundException если пользователь не найден.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UserVersion findCurrentUserVersion(TokenClaims claims) {
+        return userRepository.findVersionByLogin(claims.username()).orElseThrow(EntityNotFoundException::new);
+    }
+
+    /**
+     * Находит версию пользователя по его идентификатору без загрузки сущности и ролей.
+     *
+     * @param id идентификатор пользователя.
+     * @return версия пользователя.
+     * @throws EntityNotFoundException если пользователь не найден.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UserVersion findVersionById(Long id) {
+        return userRepository.findVersionById(id).orElseThrow(EntityNotFoundException::new);
+    }
+
+    /**
+     * Получает список всех пользователей. Пользователи с ролями выбираются одним
+     * запросом в виде строк без создания сущностей.
      *
      * @return список объектов {@link UserDto} с данными пользователей.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> findAll() {
-        var userList = userRepository.findAll();
-        return userList.stream().map(userConverter::convert).collect(Collectors.toList());
+        var users = new ArrayList<UserDto>();
+        group(userRepository.findAllWithRoles().iterator(), users::add);
+        return users;
+    }
+
+    /**
+     * Получает страницу пользователей, упорядоченных по идентификатору, начиная
+     * после указанного курсора. Выборка выполняется по первичному ключу и не
+     * зависит от номера страницы. Сначала выбираются идентификаторы страницы,
+     * затем пользователи с ролями одним запросом в виде строк без создания сущностей.
+     *
+     * @param cursor идентификатор, после которого начинается страница, или {@code null} для первой страницы.
+     * @param size   размер страницы; ограничивается настройкой {@code users.page.max-size}.
+     * @return страница пользователей с курсором следующей страницы.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageDto<UserDto> findPage(Long cursor, Integer size) {
+        int limit = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        var ids = userRepository.findIdsAfter(cursor == null ? 0L : cursor, Limit.of(limit));
+        var next = ids.size() == limit ? ids.get(ids.size() - 1) : null;
+        var users = new ArrayList<UserDto>(ids.size());
+        if (!ids.isEmpty()) {
+            group(userRepository.findAllWithRolesByIdIn(ids).iterator(), users::add);
+        }
+        return new PageDto<>(users, next);
+    }
+
+    /**
+     * Передает всех пользователей обработчику по одному, читая их курсором базы данных.
+     * Пользователи с ролями выбираются одним запросом в виде строк без создания
+     * сущностей, поэтому расход памяти не зависит от количества пользователей.
+     *
+     * @param consumer обработчик пользователей.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserDto> consumer) {
+        try (var rows = userRepository.streamAllWithRoles()) {
+            group(rows.iterator(), consumer);
+        }
     }
 
     /**
@@ -89,10 +173,11 @@ public class UserServiceImpl implements UserService {
             throw new InvalidJwtException(USERNAME_IS_EXIST);
         }
         var roleSet = dto.getRoleList().stream()
-                .map(roleDto -> roleRepository.findByName(roleDto.getName()).orElseThrow(EntityNotFoundException::new))
+                .map(roleDto -> roleRegistry.get(roleDto.getName()))
                 .collect(Collectors.toSet());
         var encryptedPassword = passwordEncoder.encode(dto.getPassword());
         var newUser = new User(dto.getUsername(), encryptedPassword, roleSet);
+        eventPublisher.publishEvent(new UserChangedEvent(newUser.getLogin()));
         return userConverter.convert(userRepository.save(newUser));
     }
 
@@ -105,9 +190,13 @@ public class UserServiceImpl implements UserService {
      * @throws EntityNotFoundException если пользователь не найден.
      */
     @Override
+    @Transactional
     public UserDto update(Long id, UserUpdateDto dto) {
         var user = userRepository.findById(id).orElseThrow(EntityNotFoundException::new);
-        return userConverter.convert(userRepository.save(userConverter.merge(user, dto)));
+        eventPublisher.publishEvent(new UserChangedEvent(user.getLogin()));
+        var updated = userRepository.save(userConverter.merge(user, dto));
+        eventPublisher.publishEvent(new UserChangedEvent(updated.getLogin()));
+        return userConverter.convert(updated);
     }
 
     /**
@@ -116,20 +205,51 @@ public class UserServiceImpl implements UserService {
      * @param id идентификатор пользователя, которого нужно удалить.
      */
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getLogin()));
+        });
     }
 
     /**
      * Обрабатывает выход пользователя из системы, добавляя токен в черный список.
      *
-     * @param token токен аутентификации, который пользователь хочет отозвать
-     * @throws EntityNotFoundException если пользователь с указанным логином не найден
+     * @param claims данные проверенного токена, который пользователь хочет отозвать
      */
     @Override
-    public void logout(String token) {
-        User user = userRepository.findByLogin(tokenUtil.getUsername(token)).orElseThrow(EntityNotFoundException::new);
-        LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochSecond(tokenUtil.getExt(token)), ZoneId.systemDefault());
-        tokenRepository.save(new BlackList(user.getLogin(), token, dateTime));
+    public void logout(TokenClaims claims) {
+        revocationService.revoke(claims);
+    }
+
+    /**
+     * Собирает пользователей из строк выборки, упорядоченных по идентификатору
+     * пользователя: соседние строки одного пользователя объединяются в один {@link UserDto}.
+     *
+     * @param rows     строки выборки пользователей с ролями.
+     * @param consumer обработчик пользователей.
+     */
+    private void group(Iterator<UserRoleRow> rows, Consumer<UserDto> consumer) {
+        Long id = null;
+        String login = null;
+        var roles = EnumSet.noneOf(RoleName.class);
+        while (rows.hasNext()) {
+            var row = rows.next();
+            if (!row.id().equals(id)) {
+                if (id != null) {
+                    consumer.accept(userConverter.convert(new UserView(id, login, roles)));
+                }
+                id = row.id();
+                login = row.login();
+                roles = EnumSet.noneOf(RoleName.class);
+            }
+            if (row.role() != null) {
+                roles.add(row.role());
+            }
+        }
+        if (id != null) {
+            consumer.accept(userConverter.convert(new UserView(id, login, roles)));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package by.vitikova.spring.mvc.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума для криптографических хешей.
+ * <p>
+ * Элементы передаются уже в виде хеша длиной не менее 16 байт (например, подписи
+ * токена), поэтому позиции битов вычисляются двойным хешированием из первых двух
+ * 64-битных слов хеша без дополнительного хеширования. Биты устанавливаются через
+ * CAS без блокировок.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * Создает фильтр, рассчитанный на заданное количество элементов и вероятность
+     * ложноположительного ответа.
+     *
+     * @param expectedInsertions ожидаемое количество элементов
+     * @param fpp                допустимая вероятность ложноположительного ответа
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) >>> 6));
+        this.bitSize = (long) bits.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    /**
+     * Добавляет элемент в фильтр.
+     *
+     * @param hash хеш элемента длиной не менее 16 байт
+     */
+    public void put(byte[] hash) {
+        var buffer = ByteBuffer.wrap(hash);
+        long h1 = buffer.getLong();
+        long h2 = buffer.getLong();
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitSize);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+            if ((current & mask) == 0) {
+                bitsSet.incrementAndGet();
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Проверяет, мог ли элемент быть добавлен в фильтр.
+     *
+     * @param hash хеш элемента длиной не менее 16 байт
+     * @return false, если элемент точно не добавлялся
+     */
+    public boolean mightContain(byte[] hash) {
+        var buffer = ByteBuffer.wrap(hash);
+        long h1 = buffer.getLong();
+        long h2 = buffer.getLong();
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Оценивает текущую вероятность ложноположительного ответа по доле установленных битов.
+     *
+     * @return оценка вероятности ложноположительного ответа
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashCount);
+    }
+
+    /**
+     * @return объем памяти, занимаемый битовым массивом, в байтах
+     */
+    public long memoryBytes() {
+        return bitSize >>> 3;
+    }
+
+    /**
+     * @return количество добавленных элементов
+     */
+    public long insertions() {
+        return insertions.get();
+    }
+}
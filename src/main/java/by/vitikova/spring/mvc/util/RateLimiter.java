@@ -0,0 +1,72 @@
+package by.vitikova.spring.mvc.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Потокобезопасный ограничитель частоты запросов по ключам (token bucket).
+ * <p>
+ * Корзина каждого ключа вмещает {@code capacity} разрешений и пополняется одним
+ * разрешением за {@code refillPeriod}. Состояние корзины хранится в одном
+ * {@link AtomicLong} - теоретическом времени прихода следующего запроса (алгоритм
+ * GCRA), - и обновляется через CAS без блокировок.
+ * <p>
+ * Корзины хранятся в кэше Caffeine, ограниченном {@code maxKeys} ключами. Корзина,
+ * к которой не обращались дольше времени полного пополнения, удаляется: новая
+ * корзина для того же ключа находится в том же состоянии.
+ */
+public class RateLimiter {
+
+    private final long interval;
+    private final long burst;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * Создает ограничитель.
+     *
+     * @param capacity     наибольшее число разрешений подряд
+     * @param refillPeriod время пополнения корзины на одно разрешение
+     * @param maxKeys      наибольшее число хранимых ключей
+     */
+    public RateLimiter(int capacity, Duration refillPeriod, long maxKeys) {
+        this.interval = refillPeriod.toNanos();
+        this.burst = interval * capacity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burst))
+                .build();
+    }
+
+    /**
+     * Забирает разрешение из корзины ключа.
+     *
+     * @param key ключ
+     * @return {@code true}, если разрешение получено
+     */
+    public boolean tryAcquire(String key) {
+        var bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = bucket.get();
+            long next = (arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival) + interval;
+            if (next - now > burst) {
+                return false;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Возвращает приблизительное число хранимых ключей.
+     *
+     * @return число ключей
+     */
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
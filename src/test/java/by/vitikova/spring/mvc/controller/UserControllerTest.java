@@ -0,0 +1,108 @@
+package by.vitikova.spring.mvc.controller;
+
+import by.vitikova.spring.mvc.config.PasswordEncoderFactory;
+import by.vitikova.spring.mvc.config.PasswordHashExecutor;
+import by.vitikova.spring.mvc.config.SecurityConfig;
+import by.vitikova.spring.mvc.config.TokenVerifier;
+import by.vitikova.spring.mvc.config.service.UserDetailsServiceImpl;
+import by.vitikova.spring.mvc.constant.ExportFormat;
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.model.dto.auth.TokenClaims;
+import by.vitikova.spring.mvc.service.RevocationService;
+import by.vitikova.spring.mvc.service.UserExportService;
+import by.vitikova.spring.mvc.service.UserImportService;
+import by.vitikova.spring.mvc.service.UserService;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+
+import static by.vitikova.spring.mvc.constant.Constant.AUTHORIZATION_HEADER;
+import static by.vitikova.spring.mvc.constant.Constant.BEARER_PREFIX;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет, что потоковые ответы пользователя с токеном завершаются без отказа в доступе.
+ * <p>
+ * {@code StreamingResponseBody} дописывается при асинхронном повторном проходе запроса
+ * через цепочку фильтров, в котором {@code SecurityFilter} не выполняется и контекст
+ * безопасности пуст.
+ */
+@WebMvcTest(controllers = UserController.class, properties = "security.jwt.stateless=true")
+@Import({SecurityConfig.class, SimpleMeterRegistry.class})
+class UserControllerTest {
+
+    private static final String TOKEN = "token";
+    private static final String BODY = "id,login,roles\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private UserImportService userImportService;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private TokenVerifier tokenVerifier;
+
+    @MockBean
+    private RevocationService revocationService;
+
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private PasswordEncoderFactory passwordEncoderFactory;
+
+    @MockBean
+    private PasswordHashExecutor passwordHashExecutor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var claims = new TokenClaims(TOKEN, "admin@mail.com", Set.of(RoleName.ADMIN), Instant.now().plusSeconds(60));
+        var decoded = mock(DecodedJWT.class);
+        when(tokenVerifier.decode(TOKEN)).thenReturn(decoded);
+        when(tokenVerifier.verify(decoded)).thenReturn(claims);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(BODY.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userExportService).export(any(), eq(ExportFormat.CSV), anyBoolean());
+    }
+
+    @Test
+    void exportShouldCompleteAsyncDispatchForAuthenticatedUser() throws Exception {
+        var result = mockMvc.perform(get("/api/users/export")
+                        .header(AUTHORIZATION_HEADER, BEARER_PREFIX + TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+    }
+}
@@ -0,0 +1,116 @@
+package by.vitikova.spring.mvc.repository;
+
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.model.entity.Role;
+import by.vitikova.spring.mvc.model.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверяет число SQL-запросов при загрузке пользователей с ролями, чтобы возврат
+ * к отдельному запросу ролей на каждого пользователя (N+1) ломал сборку.
+ * <p>
+ * Схема создается Hibernate во встроенной базе H2, счетчик запросов берется из
+ * статистики Hibernate и сбрасывается после подготовки данных.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+class UserRepositoryTest {
+
+    private static final int USER_COUNT = 5;
+    private static final String LOGIN = "user0@mail.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        var admin = role(RoleName.ADMIN);
+        var user = role(RoleName.USER);
+        for (int i = 0; i < USER_COUNT; i++) {
+            var roles = new HashSet<Role>();
+            roles.add(user);
+            if (i % 2 == 0) {
+                roles.add(admin);
+            }
+            var persisted = entityManager.persist(new User("user" + i + "@mail.com", "hash", roles));
+            if (i == 0) {
+                userId = persisted.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllShouldLoadRolesInOneStatement() {
+        var users = userRepository.findAll();
+
+        assertEquals(USER_COUNT, users.size());
+        assertEquals(8, users.stream().mapToInt(u -> u.getRoleList().size()).sum());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdShouldLoadRolesInOneStatement() {
+        var user = userRepository.findById(userId).orElseThrow();
+
+        assertEquals(2, user.getRoleList().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByLoginShouldLoadRolesInOneStatement() {
+        var user = userRepository.findByLogin(LOGIN).orElseThrow();
+
+        assertEquals(2, user.getRoleList().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllWithRolesShouldSelectRowsInOneStatement() {
+        var rows = userRepository.findAllWithRoles();
+
+        assertEquals(8, rows.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pageShouldSelectIdsAndRowsInTwoStatements() {
+        List<Long> ids = userRepository.findIdsAfter(0L, Limit.of(3));
+        var rows = userRepository.findAllWithRolesByIdIn(ids);
+
+        assertEquals(3, ids.size());
+        assertEquals(5, rows.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Role role(RoleName name) {
+        var role = new Role();
+        role.setName(name);
+        return entityManager.persist(role);
+    }
+}
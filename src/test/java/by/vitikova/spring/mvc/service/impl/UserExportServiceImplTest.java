@@ -0,0 +1,71 @@
+package by.vitikova.spring.mvc.service.impl;
+
+import by.vitikova.spring.mvc.constant.ExportFormat;
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.model.dto.RoleDto;
+import by.vitikova.spring.mvc.model.dto.UserDto;
+import by.vitikova.spring.mvc.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Проверяет выгрузку пользователя без логина: такая запись не должна прерывать
+ * выгрузку посреди ответа.
+ */
+class UserExportServiceImplTest {
+
+    private UserExportServiceImpl exportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        var role = new RoleDto();
+        role.setName(RoleName.USER);
+        var user = new UserDto();
+        user.setId("1");
+        user.setRoleList(Set.of(role));
+        var userService = mock(UserService.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<UserDto>>getArgument(0).accept(user);
+            return null;
+        }).when(userService).streamAll(any());
+        exportService = new UserExportServiceImpl(userService, new ObjectMapper());
+    }
+
+    @Test
+    void exportCsvShouldWriteEmptyFieldForMissingLogin() throws IOException {
+        var output = new ByteArrayOutputStream();
+
+        exportService.export(output, ExportFormat.CSV, false);
+
+        assertEquals("id,login,roles\n1,,USER\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportBinaryShouldWriteEmptyStringForMissingLogin() throws IOException {
+        var output = new ByteArrayOutputStream();
+
+        exportService.export(output, ExportFormat.BINARY, false);
+
+        var input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        input.readInt();
+        assertEquals(1L, input.readLong());
+        assertEquals("", input.readUTF());
+        assertEquals(1, input.readByte());
+        assertEquals(RoleName.USER.name(), input.readUTF());
+    }
+}
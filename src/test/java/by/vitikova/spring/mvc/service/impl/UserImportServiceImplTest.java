@@ -0,0 +1,144 @@
+package by.vitikova.spring.mvc.service.impl;
+
+import by.vitikova.spring.mvc.cache.RoleRegistry;
+import by.vitikova.spring.mvc.config.PasswordHashExecutor;
+import by.vitikova.spring.mvc.constant.ImportFormat;
+import by.vitikova.spring.mvc.constant.RoleName;
+import by.vitikova.spring.mvc.event.UserChangedEvent;
+import by.vitikova.spring.mvc.model.dto.bulk.ImportErrorDto;
+import by.vitikova.spring.mvc.model.dto.bulk.ImportResultDto;
+import by.vitikova.spring.mvc.model.entity.Role;
+import by.vitikova.spring.mvc.model.entity.User;
+import by.vitikova.spring.mvc.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет разбор CSV и сохранение пачек при массовом импорте пользователей.
+ * <p>
+ * Репозиторий заменен заглушкой, которая отклоняет пачку целиком, если в ней есть
+ * пользователь с логином {@link #BAD_LOGIN}, как это делает база данных при
+ * нарушении ограничения.
+ */
+class UserImportServiceImplTest {
+
+    private static final String BAD_LOGIN = "bad@mail.com";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final List<String> saved = new ArrayList<>();
+
+    private PasswordHashExecutor passwordHashExecutor;
+    private UserImportServiceImpl importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        var role = new Role();
+        role.setName(RoleName.USER);
+        var roleRegistry = mock(RoleRegistry.class);
+        when(roleRegistry.get(any())).thenReturn(role);
+        when(userRepository.findExistingLogins(anyCollection())).thenReturn(Set.of());
+        when(userRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            var users = (List<User>) invocation.getArgument(0);
+            if (users.stream().anyMatch(user -> user.getLogin().equals(BAD_LOGIN))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            users.forEach(user -> saved.add(user.getLogin()));
+            return users;
+        });
+        var transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        passwordHashExecutor = new PasswordHashExecutor(1, 16, new SimpleMeterRegistry());
+        importService = new UserImportServiceImpl(userRepository, roleRegistry, NoOpPasswordEncoder.getInstance(),
+                passwordHashExecutor, transactionTemplate, new ObjectMapper(), eventPublisher);
+        ReflectionTestUtils.setField(importService, "batchSize", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashExecutor.destroy();
+    }
+
+    @Test
+    void importCsvShouldSaveRowsAroundRejectedOne() {
+        var result = importCsv("""
+                username,password,roles
+                user1@mail.com,secret,USER
+                user2@mail.com,secret,USER
+                bad@mail.com,secret,USER
+                user3@mail.com,secret,USER
+                """);
+
+        assertEquals(3, result.imported());
+        assertEquals(List.of(new ImportErrorDto(4, BAD_LOGIN, "value too long")), result.errors());
+        assertEquals(List.of("user1@mail.com", "user2@mail.com", "user3@mail.com"), saved);
+        verify(eventPublisher).publishEvent(new UserChangedEvent("user3@mail.com"));
+    }
+
+    @Test
+    void importCsvShouldReadQuotedFields() {
+        var result = importCsv("username,password,roles\r\n"
+                + "\"user,1@mail.com\",\"se\"\"cr\r\net\",USER\r\n"
+                + "user2@mail.com,secret,USER\r\n");
+
+        assertEquals(2, result.imported());
+        assertEquals(List.of("user,1@mail.com", "user2@mail.com"), saved);
+    }
+
+    @Test
+    void importCsvShouldReportLineOfRowAfterMultilineField() {
+        var result = importCsv("""
+                "user
+                1@mail.com",secret,USER
+                user2@mail.com,"secret,USER
+                """);
+
+        assertEquals(1, result.imported());
+        assertEquals(3, result.errors().get(0).line());
+    }
+
+    @Test
+    void importCsvShouldParseFirstLineThatOnlyStartsWithHeader() {
+        var result = importCsv("""
+                username@mail.com,secret,USER
+                """);
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of("username@mail.com"), saved);
+    }
+
+    private ImportResultDto importCsv(String csv) {
+        var input = new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+        return importService.importUsers(input, ImportFormat.CSV);
+    }
+}